@@ -1,13 +1,15 @@
 package org.swe.slideshow;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
-import javafx.event.EventHandler;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
@@ -17,28 +19,42 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 import org.swe.slideshow.model.AlbumItem;
+import org.swe.slideshow.model.AlbumExport;
+import org.swe.slideshow.model.AlbumExportListener;
+import org.swe.slideshow.model.AlbumPack;
 import org.swe.slideshow.model.AlbumStore;
 import org.swe.slideshow.model.ConcreteAggregate;
 import org.swe.slideshow.model.Builder;
+import org.swe.slideshow.model.BuilderCanvasIndicator;
 import org.swe.slideshow.model.BuilderIndicator;
 import org.swe.slideshow.model.Director;
 import org.swe.slideshow.model.Indicator;
+import org.swe.slideshow.model.PlaybackClock;
+import org.swe.slideshow.model.PlaybackListener;
+import org.swe.slideshow.model.PlaybackOrder;
+import org.swe.slideshow.model.ScanListener;
 import org.swe.slideshow.model.SlideNavigator;
+import org.swe.slideshow.model.ThumbnailCache;
 import org.swe.slideshow.model.embedded.EmbeddedAlbum;
 import org.swe.slideshow.model.embedded.EmbeddedImageManager;
 import org.swe.slideshow.model.factory.AggregateComponentsFactory;
 import org.swe.slideshow.model.factory.DirectoryAggregateFactory;
 import org.swe.slideshow.model.factory.EmbeddedAggregateFactory;
+import org.swe.slideshow.model.factory.PackAggregateFactory;
 import org.swe.slideshow.visual.EmotionPalette;
 import org.swe.slideshow.visual.EmotionPalette.EmotionStyle;
+import org.swe.slideshow.visual.ThumbnailCell;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -54,6 +70,11 @@ public class Controller {
             "😌 Спокойствие",
             "😎 Вдохновение"
     };
+    private static final String ALL_EMOTIONS = "Все эмоции";
+    private static final boolean CANVAS_INDICATORS = Boolean.getBoolean("slideshow.canvasIndicators");
+    private static final double BASE_SCENE_WIDTH = 800;
+    private static final double BASE_SCENE_HEIGHT = 1000;
+    private static final double VIEWPORT_DEBOUNCE_MS = 300;
     @FXML
     private StackPane imageWrapper;
 
@@ -68,15 +89,36 @@ public class Controller {
     
     @FXML
     private Button selectDirectoryButton;
+
+    @FXML
+    private Button cancelScanButton;
     
     @FXML
     private Button nextButton;
     
     @FXML
     private Button prevButton;
+
+    @FXML
+    private TextField goToSlideField;
     
     @FXML
     private ComboBox<String> formatComboBox;
+
+    @FXML
+    private ComboBox<PlaybackOrder> playbackOrderComboBox;
+
+    @FXML
+    private TextField impressionFilterField;
+
+    @FXML
+    private ComboBox<String> emotionFilterComboBox;
+
+    @FXML
+    private CheckBox liveUpdateCheckBox;
+
+    @FXML
+    private CheckBox contentDetectionCheckBox;
     
     @FXML
     private TextField delayTextField;
@@ -87,6 +129,9 @@ public class Controller {
     @FXML
     private Pane indicatorPane;
 
+    @FXML
+    private ListView<AlbumItem> filmstripView;
+
     @FXML
     private TextArea impressionTextArea;
 
@@ -102,9 +147,18 @@ public class Controller {
     @FXML
     private Button saveAlbumButton;
 
+    @FXML
+    private Button cancelExportButton;
+
     @FXML
     private Button loadAlbumButton;
 
+    @FXML
+    private Button loadPackButton;
+
+    @FXML
+    private CheckBox packAlbumCheckBox;
+
     @FXML
     private ComboBox<String> embeddedAlbumComboBox;
 
@@ -113,32 +167,65 @@ public class Controller {
 
     private ConcreteAggregate slides;
     private SlideNavigator navigator;
-    private Timeline timeline;
+    private PlaybackClock playbackClock;
     private String selectedDirectory = "";
     private String selectedFormat = "*";
     private int slideDelay = 2000;
+    private final Builder progressBuilder = newIndicatorBuilder();
+    private final Builder timerBuilder = newIndicatorBuilder();
     private Indicator progressIndicator;
     private Indicator timerIndicator;
+    private HBox indicatorsBox;
+    private AlbumExport albumExport;
     private Director director;
-    private Timeline timerTimeline;
-    private long startTime;
     private float maxTime = 300.0f;
     private boolean impressionUpdatingInternally;
+    private boolean scanShowedFirstSlide;
     private final EmbeddedImageManager embeddedImageManager = new EmbeddedImageManager();
     private final Map<String, EmbeddedAlbum> embeddedAlbums = new LinkedHashMap<>();
+    private PauseTransition viewportDebounce;
+    private double baseFitWidth;
+    private double baseFitHeight;
+    private ConcreteAggregate filmstripSource;
+    private int filmstripVersion = -1;
+    private int filmstripSize = -1;
+    private boolean filmstripPrefilled;
     
     @FXML
     public void initialize() {
         formatComboBox.getItems().addAll("*", "*.png",
                 "*.jpg", "*.jpeg", "*.gif", "*.bmp");
         formatComboBox.setValue("*");
+        playbackOrderComboBox.getItems().addAll(PlaybackOrder.values());
+        playbackOrderComboBox.setValue(PlaybackOrder.SCAN);
 
         delayTextField.setText("2000");
 
         slides = new ConcreteAggregate("", "*");
+        slides.setImageReadyListener(this::handleImageReady);
         navigator = new SlideNavigator(slides);
         
         director = new Director();
+        playbackClock = new PlaybackClock(new PlaybackListener() {
+            @Override
+            public void onPrepareSlide() {
+                if (navigator != null) {
+                    navigator.prepareNext();
+                }
+            }
+
+            @Override
+            public void onSlideDue() {
+                handleSlideShow();
+            }
+
+            @Override
+            public void onFrame(double elapsedSeconds) {
+                updateTimer(elapsedSeconds);
+            }
+        });
+        setupViewportTracking();
+        setupFilmstrip();
         setupImpressionControls();
         setupEmbeddedAlbums();
 
@@ -163,38 +250,96 @@ public class Controller {
             if (format != null) {
                 selectedFormat = format;
             }
-            
-            AggregateComponentsFactory factory = new DirectoryAggregateFactory(selectedDirectory, selectedFormat);
-            loadFromFactory(factory,
-                    count -> "Найдено изображений: " + count,
-                    "Изображения не найдены в выбранном каталоге",
-                    false);
+            loadSelectedDirectory();
         }
     }
+
+    @FXML
+    protected void onContentDetectionToggle() {
+        boolean enabled = isContentDetectionEnabled();
+        embeddedImageManager.setContentDetection(enabled);
+        if (!selectedDirectory.isEmpty() && slides != null && slides.isDirectoryBacked()) {
+            loadSelectedDirectory();
+        }
+    }
+
+    private void loadSelectedDirectory() {
+        AggregateComponentsFactory factory = new DirectoryAggregateFactory(selectedDirectory, selectedFormat,
+                isContentDetectionEnabled());
+        loadFromFactory(factory,
+                count -> "Найдено изображений: " + count,
+                "Изображения не найдены в выбранном каталоге",
+                false);
+    }
+
+    private boolean isContentDetectionEnabled() {
+        return contentDetectionCheckBox != null && contentDetectionCheckBox.isSelected();
+    }
     
     @FXML
     protected void onFormatChange() {
         String format = formatComboBox.getValue();
         if (format != null && !selectedDirectory.isEmpty()) {
             selectedFormat = format;
+            String currentItemId = navigator != null ? navigator.currentItemId() : null;
             slides.setImageFormat(selectedFormat);
             if (navigator != null) {
                 navigator.refresh();
             }
             
             int imageCount = slides.getImageCount();
-            updateStatus("Найдено изображений: " + imageCount);
+            scanShowedFirstSlide = imageCount > 0;
+            if (slides.isScanning()) {
+                updateStatus("Сканирование... найдено изображений: " + imageCount);
+            } else {
+                updateStatus("Найдено изображений: " + imageCount);
+            }
             if (imageCount > 0) {
-                removeProgressIndicator();
+                resetProgressIndicator();
                 updateControlsForImageCount(imageCount);
-                showNextImage();
+                showSlideOrFirst(currentItemId);
             } else {
-                removeProgressIndicator();
+                resetProgressIndicator();
                 updateControlsForImageCount(0);
             }
         }
     }
     
+    @FXML
+    protected void onPlaybackOrderChange() {
+        if (slides == null) {
+            return;
+        }
+        slides.setPlaybackOrder(selectedPlaybackOrder());
+        if (navigator != null && navigator.hasSlides()) {
+            refreshFilmstrip();
+            syncFilmstripSelection();
+            updateProgressIndicator();
+            updateStatus("Порядок показа: " + slides.getPlaybackOrder());
+        }
+    }
+
+    private PlaybackOrder selectedPlaybackOrder() {
+        PlaybackOrder order = playbackOrderComboBox != null ? playbackOrderComboBox.getValue() : null;
+        return order != null ? order : PlaybackOrder.SCAN;
+    }
+
+    @FXML
+    protected void onCancelScanClick() {
+        if (slides == null || !slides.isScanning()) {
+            return;
+        }
+        slides.cancelScan();
+        setScanControlsActive(false);
+        updateStatus("Сканирование отменено, найдено изображений: " + slides.getImageCount());
+        updateLiveWatching();
+    }
+
+    @FXML
+    protected void onLiveUpdateToggle() {
+        updateLiveWatching();
+    }
+    
     @FXML
     protected void onStartClick() {
         if (slides.getImageCount() == 0) {
@@ -213,19 +358,8 @@ public class Controller {
             delayTextField.setText("2000");
         }
 
-        if (timeline != null) {
-            timeline.stop();
-        }
-
-        timeline = new Timeline();
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        
-        EventHandler<ActionEvent> eventHandler = this::handleSlideShow;
-        timeline.getKeyFrames().add(new KeyFrame(Duration.millis(slideDelay), eventHandler));
-        
-        timeline.play();
-
-        startTime = System.currentTimeMillis();
+        playbackClock.stop();
+        playbackClock.start(slideDelay);
 
         int imageCount = slides.getImageCount();
         createProgressIndicator(imageCount);
@@ -245,24 +379,21 @@ public class Controller {
     
     @FXML
     protected void onStopClick() {
-        if (timeline != null) {
-            timeline.stop();
-        }
-
-        if (timerTimeline != null) {
-            timerTimeline.stop();
-        }
+        playbackClock.stop();
+        PlaybackClock.JitterStats jitter = playbackClock.getJitterStats();
 
-        removeProgressIndicator();
-        removeTimerIndicator();
-        
         stopButton.setDisable(true);
         selectDirectoryButton.setDisable(false);
         formatComboBox.setDisable(false);
         delayTextField.setDisable(false);
         updateControlsForImageCount(slides.getImageCount());
         
-        updateStatus("Слайд-шоу остановлено");
+        if (jitter.slides() > 0) {
+            updateStatus(String.format("Слайд-шоу остановлено (смен слайдов: %d, среднее опоздание: %.1f мс, максимум: %.1f мс)",
+                    jitter.slides(), jitter.meanLatenessMs(), jitter.maxLatenessMs()));
+        } else {
+            updateStatus("Слайд-шоу остановлено");
+        }
     }
     
     @FXML
@@ -270,6 +401,45 @@ public class Controller {
         showNextImage();
     }
     
+    @FXML
+    protected void onGoToSlideClick() {
+        if (navigator == null || !navigator.hasSlides() || goToSlideField == null) {
+            return;
+        }
+        int index;
+        try {
+            index = Integer.parseInt(goToSlideField.getText().trim());
+        } catch (NumberFormatException e) {
+            updateStatus("Введите номер слайда от 1 до " + navigator.totalSlides());
+            return;
+        }
+        if (index < 1 || index > navigator.totalSlides()) {
+            updateStatus("Слайда с номером " + index + " нет, допустимо от 1 до " + navigator.totalSlides());
+            return;
+        }
+        Image image = navigator.seek(index);
+        if (image != null) {
+            showSeekResult(image);
+            updateStatus("Слайд " + navigator.currentIndex() + " из " + navigator.totalSlides());
+        }
+    }
+
+    private void showSlideOrFirst(String itemId) {
+        Image image = navigator != null ? navigator.seekToItem(itemId) : null;
+        if (image != null) {
+            showSeekResult(image);
+        } else {
+            showNextImage();
+        }
+    }
+
+    private void showSeekResult(Image image) {
+        screen.setImage(image);
+        updateProgressIndicator();
+        updateImpressionField();
+        syncFilmstripSelection();
+    }
+    
     @FXML
     protected void onPrevClick() {
         if (navigator != null && navigator.hasSlides()) {
@@ -278,11 +448,12 @@ public class Controller {
                 screen.setImage(image);
                 updateStatus("Предыдущее изображение");
                 updateImpressionField();
+                syncFilmstripSelection();
             }
         }
     }
     
-    private void handleSlideShow(ActionEvent event) {
+    private void handleSlideShow() {
         if (navigator == null || !navigator.hasSlides()) {
             return;
         }
@@ -291,6 +462,7 @@ public class Controller {
             screen.setImage(image);
             updateProgressIndicator();
             updateImpressionField();
+            syncFilmstripSelection();
         }
     }
     
@@ -300,51 +472,156 @@ public class Controller {
             if (image != null) {
                 screen.setImage(image);
                 updateStatus("Изображение загружено");
-                if (timeline != null && timeline.getStatus() == javafx.animation.Animation.Status.RUNNING) {
+                if (playbackClock.isRunning()) {
                     updateProgressIndicator();
                 }
                 updateImpressionField();
+                syncFilmstripSelection();
             }
         } else {
             disableImpressionControls();
         }
     }
     
-    private void createProgressIndicator(int totalSlides) {
-        if (progressIndicator == null) {
-            Builder builder = new BuilderIndicator();
-            progressIndicator = director.constructSlideShowIndicator(builder, totalSlides);
-            progressIndicator.setPercentAndFraction(1, totalSlides);
-            updateProgressIndicator();
+    private void handleImageReady(AlbumItem item, Image image) {
+        if (navigator != null && item.equals(navigator.currentItem())) {
+            screen.setImage(image);
         }
     }
-    
-    private void createTimerIndicator() {
-        if (timerIndicator == null) {
-            Builder builder = new BuilderIndicator();
-            timerIndicator = director.constructTimeIndicator(builder, 0.0f, maxTime, 0.0f);
-            timerIndicator.setTimeDisplay(0.0f);
-            startTimer();
+
+    private void setupViewportTracking() {
+        baseFitWidth = screen.getFitWidth();
+        baseFitHeight = screen.getFitHeight();
+        viewportDebounce = new PauseTransition(Duration.millis(VIEWPORT_DEBOUNCE_MS));
+        viewportDebounce.setOnFinished(e -> applyViewportSize());
+        screen.fitWidthProperty().addListener((obs, oldVal, newVal) -> viewportDebounce.playFromStart());
+        screen.fitHeightProperty().addListener((obs, oldVal, newVal) -> viewportDebounce.playFromStart());
+        screen.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) {
+                trackSceneSize(newScene);
+            }
+        });
+        screen.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                showFullResolutionImage();
+            }
+        });
+        applyViewportSize();
+    }
+
+    private void setupFilmstrip() {
+        if (filmstripView == null) {
+            return;
         }
+        ThumbnailCache thumbnailCache = ThumbnailCache.shared();
+        filmstripView.setCellFactory(view -> new ThumbnailCell(thumbnailCache));
+        filmstripView.setFixedCellSize(ThumbnailCache.THUMBNAIL_SIZE + 8);
+        filmstripView.setFocusTraversable(false);
+        filmstripView.setOnMouseClicked(e -> {
+            int index = filmstripView.getSelectionModel().getSelectedIndex();
+            if (index >= 0 && navigator != null && navigator.hasSlides()) {
+                Image image = navigator.seek(index + 1);
+                if (image != null) {
+                    showSeekResult(image);
+                }
+            }
+        });
     }
-    
-    private void startTimer() {
-        if (timerTimeline != null) {
-            timerTimeline.stop();
+
+    private void refreshFilmstrip() {
+        if (filmstripView == null) {
+            return;
+        }
+        if (slides == null) {
+            filmstripSource = null;
+            filmstripVersion = -1;
+            filmstripSize = -1;
+            filmstripView.getItems().clear();
+            ThumbnailCache.shared().cancelPrefill();
+            return;
+        }
+        if (filmstripSource != slides || filmstripVersion != slides.getVersion()
+                || filmstripSize != slides.getImageCount()) {
+            filmstripSource = slides;
+            filmstripVersion = slides.getVersion();
+            filmstripSize = slides.getImageCount();
+            filmstripView.getItems().setAll(slides.getItemsInPlaybackOrder());
+            filmstripPrefilled = false;
+        }
+        if (!filmstripPrefilled && !slides.isScanning()) {
+            filmstripPrefilled = true;
+            List<String> imagePaths = new ArrayList<>(filmstripView.getItems().size());
+            for (AlbumItem item : filmstripView.getItems()) {
+                imagePaths.add(item.getImagePath());
+            }
+            ThumbnailCache.shared().prefill(imagePaths);
+        }
+    }
+
+    private void syncFilmstripSelection() {
+        if (filmstripView == null || navigator == null || navigator.currentItem() == null) {
+            return;
+        }
+        refreshFilmstrip();
+        int index = navigator.currentIndex() - 1;
+        if (index < 0 || index >= filmstripView.getItems().size()) {
+            return;
+        }
+        filmstripView.getSelectionModel().select(index);
+        filmstripView.scrollTo(Math.max(0, index - 2));
+    }
+
+    private void trackSceneSize(Scene scene) {
+        scene.widthProperty().addListener((obs, oldVal, newVal) ->
+                screen.setFitWidth(Math.max(baseFitWidth, baseFitWidth + newVal.doubleValue() - BASE_SCENE_WIDTH)));
+        scene.heightProperty().addListener((obs, oldVal, newVal) ->
+                screen.setFitHeight(Math.max(baseFitHeight, baseFitHeight + newVal.doubleValue() - BASE_SCENE_HEIGHT)));
+    }
+
+    private void applyViewportSize() {
+        double scale = 1.0;
+        if (screen.getScene() != null && screen.getScene().getWindow() != null) {
+            scale = screen.getScene().getWindow().getOutputScaleX();
+        }
+        slides.setViewportSize(screen.getFitWidth() * scale, screen.getFitHeight() * scale);
+        if (navigator != null && navigator.currentItem() != null
+                && !navigator.currentImageCoversViewport(screen.getImage())) {
+            Image image = navigator.currentImage();
+            if (image != null) {
+                screen.setImage(image);
+            }
+        }
+    }
+
+    private void showFullResolutionImage() {
+        if (navigator == null || navigator.currentItem() == null) {
+            return;
+        }
+        Image image = navigator.currentFullResolutionImage();
+        if (image != null) {
+            screen.setImage(image);
+            updateStatus("Изображение в полном разрешении");
         }
-        
-        timerTimeline = new Timeline();
-        timerTimeline.setCycleCount(Timeline.INDEFINITE);
-        
-        EventHandler<ActionEvent> timerHandler = e -> updateTimer();
-        timerTimeline.getKeyFrames().add(new KeyFrame(Duration.millis(100), timerHandler));
-        timerTimeline.play();
     }
     
-    private void updateTimer() {
-        if (timerIndicator != null && startTime > 0) {
-            long currentTime = System.currentTimeMillis();
-            float elapsedSeconds = (currentTime - startTime) / 1000.0f;
+    private void createProgressIndicator(int totalSlides) {
+        progressIndicator = director.constructSlideShowIndicator(progressBuilder, totalSlides);
+        progressIndicator.setPercentAndFraction(1, totalSlides);
+        updateProgressIndicator();
+    }
+    
+    private static Builder newIndicatorBuilder() {
+        return CANVAS_INDICATORS ? new BuilderCanvasIndicator() : new BuilderIndicator();
+    }
+
+    private void createTimerIndicator() {
+        timerIndicator = director.constructTimeIndicator(timerBuilder, 0.0f, maxTime, 0.0f);
+        timerIndicator.setTimeDisplay(0.0f);
+    }
+    
+    private void updateTimer(double elapsed) {
+        if (timerIndicator != null) {
+            float elapsedSeconds = (float) elapsed;
 
             if (elapsedSeconds > maxTime) {
                 elapsedSeconds = maxTime;
@@ -355,23 +632,17 @@ public class Controller {
         }
     }
     
-    private void removeProgressIndicator() {
-        progressIndicator = null;
-    }
-    
-    private void removeTimerIndicator() {
-        if (timerTimeline != null) {
-            timerTimeline.stop();
-            timerTimeline = null;
+    private void resetProgressIndicator() {
+        if (progressIndicator != null && slides != null) {
+            createProgressIndicator(slides.getImageCount());
         }
-        timerIndicator = null;
-        startTime = 0;
     }
     
     private void updateProgressIndicator() {
         if (progressIndicator != null && navigator != null) {
             int currentIndex = navigator.currentIndex();
             int totalSlides = slides.getImageCount();
+            progressIndicator.setBounds(1, totalSlides);
             progressIndicator.updateProgress(currentIndex, totalSlides);
             progressIndicator.setTitle("Прогресс слайд-шоу");
         }
@@ -379,20 +650,19 @@ public class Controller {
     
     private void updateIndicatorsDisplay() {
         if (indicatorPane != null) {
-            indicatorPane.getChildren().clear();
-            
-            HBox indicatorsBox = new HBox(30);
-            indicatorsBox.setAlignment(javafx.geometry.Pos.CENTER);
+            if (indicatorsBox == null) {
+                indicatorsBox = new HBox(30);
+                indicatorsBox.setAlignment(javafx.geometry.Pos.CENTER);
+                indicatorPane.getChildren().setAll(indicatorsBox);
+            }
             
-            if (progressIndicator != null) {
+            if (progressIndicator != null && !indicatorsBox.getChildren().contains(progressIndicator.getPanel())) {
                 indicatorsBox.getChildren().add(progressIndicator.getPanel());
             }
             
-            if (timerIndicator != null) {
+            if (timerIndicator != null && !indicatorsBox.getChildren().contains(timerIndicator.getPanel())) {
                 indicatorsBox.getChildren().add(timerIndicator.getPanel());
             }
-            
-            indicatorPane.getChildren().add(indicatorsBox);
         }
     }
     
@@ -411,8 +681,12 @@ public class Controller {
         String impression = impressionTextArea.getText();
         String selectedEmotion = emotionComboBox != null ? emotionComboBox.getValue() : DEFAULT_EMOTION;
         
+        String currentItemId = navigator.currentItemId();
         currentItem.setImpressionText(impression);
         currentItem.setEmotion(selectedEmotion);
+        if (slides.refreshImpressionFilter()) {
+            applyFilteredView(currentItemId);
+        }
         
         if (impressionStatusLabel != null) {
             boolean textEmpty = impression == null || impression.isBlank();
@@ -447,8 +721,7 @@ public class Controller {
             try {
                 AlbumItem[] items = slides.getAllItems();
                 Path albumPath = buildAlbumPath(selectedDir.toPath(), albumNameResult.get());
-                AlbumStore.saveAlbum(albumPath, items);
-                updateStatus("Альбом сохранен: " + albumPath.getFileName());
+                startAlbumExport(albumPath, items);
             } catch (IOException e) {
                 e.printStackTrace();
                 updateStatus("Ошибка при сохранении альбома: " + e.getMessage());
@@ -456,6 +729,67 @@ public class Controller {
         }
     }
 
+    private void startAlbumExport(Path albumPath, AlbumItem[] items) {
+        updateStatus("Сохранение альбома...");
+        Path packFile = packAlbumCheckBox != null && packAlbumCheckBox.isSelected()
+                ? albumPath.resolveSibling(albumPath.getFileName() + AlbumPack.EXTENSION)
+                : null;
+        albumExport = AlbumStore.exportAlbum(albumPath, items, packFile, new AlbumExportListener() {
+            @Override
+            public void onProgress(int written, int total, double imagesPerSecond) {
+                updateStatus(String.format("Сохранение альбома: %d / %d (%.1f изобр./с)",
+                        written, total, imagesPerSecond));
+            }
+
+            @Override
+            public void onCompleted(int written) {
+                finishAlbumExport();
+                String message = "Альбом сохранен: " + (packFile != null ? packFile : albumPath).getFileName()
+                        + " (" + written + " изображений)";
+                if (packFile != null && packFile.toAbsolutePath().normalize().equals(slides.getPackFile())) {
+                    loadFromFactory(new PackAggregateFactory(packFile), count -> message, "Архив альбома пуст", false);
+                } else {
+                    updateStatus(message);
+                }
+            }
+
+            @Override
+            public void onCancelled(int written) {
+                finishAlbumExport();
+                updateStatus("Сохранение альбома отменено");
+            }
+
+            @Override
+            public void onFailed(IOException error) {
+                finishAlbumExport();
+                updateStatus("Ошибка при сохранении альбома: " + error.getMessage());
+            }
+        });
+        setExportControlsActive(true);
+    }
+
+    private void finishAlbumExport() {
+        albumExport = null;
+        setExportControlsActive(false);
+        updateControlsForImageCount(slides.getImageCount());
+    }
+
+    private void setExportControlsActive(boolean active) {
+        if (cancelExportButton != null) {
+            cancelExportButton.setDisable(!active);
+        }
+        saveAlbumButton.setDisable(active);
+    }
+
+    @FXML
+    protected void onCancelExportClick() {
+        if (albumExport == null || albumExport.isCancelled()) {
+            return;
+        }
+        albumExport.cancel();
+        updateStatus("Отмена сохранения альбома...");
+    }
+
     @FXML
     protected void onLoadAlbumClick() {
         javafx.stage.DirectoryChooser directoryChooser = new javafx.stage.DirectoryChooser();
@@ -466,9 +800,10 @@ public class Controller {
         if (selectedDir != null) {
             try {
                 Path albumPath = selectedDir.toPath();
-                AlbumItem[] items = AlbumStore.loadAlbum(albumPath);
-                
-                slides.loadFromAlbumItems(items);
+                slides.loadFromAlbum(albumPath);
+                resetImpressionFilterControls();
+                setScanControlsActive(false);
+                updateLiveWatching();
                 if (navigator != null) {
                     navigator.refresh();
                 } else {
@@ -491,6 +826,24 @@ public class Controller {
         }
     }
 
+    @FXML
+    protected void onLoadPackClick() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Выберите архив альбома");
+        fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Архив альбома", "*" + AlbumPack.EXTENSION));
+
+        File selectedFile = fileChooser.showOpenDialog(screen.getScene().getWindow());
+        if (selectedFile != null) {
+            AggregateComponentsFactory factory = new PackAggregateFactory(selectedFile.toPath());
+            loadFromFactory(factory,
+                    count -> "Архив альбома загружен: " + count + " изображений",
+                    "Архив альбома пуст",
+                    false);
+        }
+    }
+
     @FXML
     protected void onLoadEmbeddedClick() {
         if (embeddedAlbumComboBox == null || embeddedAlbumComboBox.getValue() == null) {
@@ -526,9 +879,65 @@ public class Controller {
                 }
             });
         }
+        if (emotionFilterComboBox != null) {
+            emotionFilterComboBox.getItems().setAll(ALL_EMOTIONS);
+            emotionFilterComboBox.getItems().addAll(EMOTION_OPTIONS);
+            emotionFilterComboBox.setValue(ALL_EMOTIONS);
+        }
         disableImpressionControls();
     }
 
+    @FXML
+    protected void onImpressionFilterClick() {
+        if (slides == null) {
+            return;
+        }
+        String emotion = emotionFilterComboBox != null ? emotionFilterComboBox.getValue() : null;
+        if (ALL_EMOTIONS.equals(emotion)) {
+            emotion = null;
+        }
+        String query = impressionFilterField != null ? impressionFilterField.getText() : null;
+        String currentItemId = navigator != null ? navigator.currentItemId() : null;
+        int imageCount = slides.setImpressionFilter(emotion, query);
+        applyFilteredView(currentItemId);
+        updateStatus("Слайдов по запросу: " + imageCount);
+    }
+
+    @FXML
+    protected void onImpressionFilterResetClick() {
+        resetImpressionFilterControls();
+        if (slides == null) {
+            return;
+        }
+        String currentItemId = navigator != null ? navigator.currentItemId() : null;
+        slides.clearImpressionFilter();
+        applyFilteredView(currentItemId);
+        updateStatus("Фильтр сброшен, изображений: " + slides.getImageCount());
+    }
+
+    private void resetImpressionFilterControls() {
+        if (impressionFilterField != null) {
+            impressionFilterField.clear();
+        }
+        if (emotionFilterComboBox != null) {
+            emotionFilterComboBox.setValue(ALL_EMOTIONS);
+        }
+    }
+
+    private void applyFilteredView(String currentItemId) {
+        if (navigator != null) {
+            navigator.refresh();
+        }
+        int imageCount = slides.getImageCount();
+        resetProgressIndicator();
+        if (imageCount > 0) {
+            updateControlsForImageCount(imageCount);
+            showSlideOrFirst(currentItemId);
+        } else {
+            updateControlsForImageCount(0);
+        }
+    }
+
     private void setupEmbeddedAlbums() {
         if (embeddedAlbumComboBox == null) {
             return;
@@ -646,9 +1055,21 @@ public class Controller {
         if (!Files.exists(candidate)) {
             return candidate;
         }
+        if (Files.exists(candidate.resolve("album.json")) && confirmAlbumUpdate(cleanedName)) {
+            return candidate;
+        }
         return makeUniquePath(candidate);
     }
 
+    private boolean confirmAlbumUpdate(String albumName) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Сохранение альбома");
+        alert.setHeaderText("Альбом \"" + albumName + "\" уже существует");
+        alert.setContentText("Обновить его? Будут перерисованы только изменённые изображения. "
+                + "Иначе будет создана новая папка.");
+        return alert.showAndWait().filter(ButtonType.OK::equals).isPresent();
+    }
+
     private String sanitizeAlbumName(String value) {
         if (value == null) {
             return "";
@@ -674,18 +1095,111 @@ public class Controller {
                                  String emptyMessage,
                                  boolean disableEmbeddedButton) {
         try {
+            if (slides != null) {
+                slides.cancelScan();
+                slides.stopWatching();
+            }
+            setScanControlsActive(false);
             ConcreteAggregate aggregate = factory.createAggregate();
             SlideNavigator newNavigator = factory.createNavigator(aggregate);
+            aggregate.setImageReadyListener(this::handleImageReady);
+            aggregate.setPlaybackOrder(selectedPlaybackOrder());
+            resetImpressionFilterControls();
+            if (slides != null) {
+                slides.releasePack();
+            }
             slides = aggregate;
             navigator = newNavigator;
-            handleDatasetChange(successMessageSupplier, emptyMessage, disableEmbeddedButton);
+            applyViewportSize();
+            if (aggregate.needsScan()) {
+                startDirectoryScan(successMessageSupplier, emptyMessage);
+            } else {
+                handleDatasetChange(successMessageSupplier, emptyMessage, disableEmbeddedButton);
+            }
         } catch (IOException e) {
             updateStatus("Ошибка загрузки: " + e.getMessage());
-            removeProgressIndicator();
+            resetProgressIndicator();
             updateControlsForImageCount(0);
         }
     }
 
+    private void startDirectoryScan(Function<Integer, String> successMessageSupplier, String emptyMessage) {
+        scanShowedFirstSlide = false;
+        resetProgressIndicator();
+        updateControlsForImageCount(0);
+        setScanControlsActive(true);
+        updateStatus("Сканирование каталога...");
+        slides.startScan(new ScanListener() {
+            @Override
+            public void onItemsFound(int totalCount) {
+                handleScanProgress(totalCount);
+            }
+
+            @Override
+            public void onScanCompleted(int totalCount) {
+                setScanControlsActive(false);
+                updateLiveWatching();
+                if (totalCount > 0) {
+                    updateControlsForImageCount(totalCount);
+                    updateProgressIndicator();
+                    updateStatus(successMessageSupplier.apply(totalCount));
+                } else {
+                    handleDatasetChange(null, emptyMessage, false);
+                }
+            }
+        });
+    }
+
+    private void handleScanProgress(int totalCount) {
+        updateControlsForImageCount(totalCount);
+        if (!scanShowedFirstSlide && totalCount > 0) {
+            scanShowedFirstSlide = true;
+            if (navigator != null) {
+                navigator.refresh();
+            }
+            showNextImage();
+        }
+        updateProgressIndicator();
+        updateStatus("Сканирование... найдено изображений: " + totalCount);
+    }
+
+    private void updateLiveWatching() {
+        if (slides == null) {
+            return;
+        }
+        boolean enabled = liveUpdateCheckBox != null && liveUpdateCheckBox.isSelected();
+        if (!enabled || slides.isScanning()) {
+            slides.stopWatching();
+            return;
+        }
+        if (slides.isWatching()) {
+            return;
+        }
+        try {
+            slides.startWatching(this::handleCollectionChange);
+        } catch (IOException e) {
+            updateStatus("Не удалось включить отслеживание каталога: " + e.getMessage());
+        }
+    }
+
+    private void handleCollectionChange(int totalCount, int addedCount, int removedCount) {
+        boolean showFirstSlide = screen.getImage() == null && totalCount > 0;
+        updateControlsForImageCount(totalCount);
+        if (showFirstSlide && navigator != null) {
+            navigator.refresh();
+            showNextImage();
+        }
+        updateProgressIndicator();
+        updateStatus("Каталог обновлён: +" + addedCount + " / −" + removedCount
+                + ", всего изображений: " + totalCount);
+    }
+
+    private void setScanControlsActive(boolean active) {
+        if (cancelScanButton != null) {
+            cancelScanButton.setDisable(!active);
+        }
+    }
+
     private void handleDatasetChange(Function<Integer, String> successMessageSupplier,
                                      String emptyMessage,
                                      boolean disableEmbeddedButton) {
@@ -694,14 +1208,14 @@ public class Controller {
             navigator.refresh();
         }
         if (imageCount > 0) {
-            removeProgressIndicator();
+            resetProgressIndicator();
             updateControlsForImageCount(imageCount);
             showNextImage();
             if (successMessageSupplier != null) {
                 updateStatus(successMessageSupplier.apply(imageCount));
             }
         } else {
-            removeProgressIndicator();
+            resetProgressIndicator();
             updateControlsForImageCount(0);
             if (emptyMessage != null) {
                 updateStatus(emptyMessage);
@@ -720,14 +1234,15 @@ public class Controller {
     }
 
     private void updateControlsForImageCount(int count) {
+        refreshFilmstrip();
         boolean hasImages = count > 0;
-        boolean timelineActive = timeline != null && timeline.getStatus() == Timeline.Status.RUNNING;
+        boolean timelineActive = playbackClock != null && playbackClock.isRunning();
         nextButton.setDisable(!hasImages || timelineActive);
         prevButton.setDisable(!hasImages || timelineActive);
         if (!timelineActive) {
             startButton.setDisable(!hasImages);
         }
-        saveAlbumButton.setDisable(!hasImages || timelineActive);
+        saveAlbumButton.setDisable(!hasImages || timelineActive || albumExport != null);
         if (!hasImages) {
             disableImpressionControls();
             if (screen != null) {
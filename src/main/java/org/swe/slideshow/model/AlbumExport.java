@@ -0,0 +1,319 @@
+package org.swe.slideshow.model;
+
+import javafx.application.Platform;
+import org.swe.slideshow.visual.AlbumImageRenderer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class AlbumExport implements Runnable {
+    private static final int WORKER_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final long MEMORY_BUDGET = Math.max(64L << 20, Runtime.getRuntime().maxMemory() / 3);
+    private static final long PROGRESS_INTERVAL_NANOS = 100_000_000L;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final Path albumDirectory;
+    private final AlbumItem[] items;
+    private final String[] keys;
+    private final Path packFile;
+    private final AlbumExportListener listener;
+    private volatile boolean cancelled;
+    private long lastProgress;
+
+    AlbumExport(Path albumDirectory, AlbumItem[] items, Path packFile, AlbumExportListener listener) {
+        this.albumDirectory = albumDirectory;
+        this.items = snapshot(items);
+        this.keys = new String[items.length];
+        this.packFile = packFile;
+        this.listener = listener;
+    }
+
+    void start() {
+        Thread thread = new Thread(this, "album-export");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void run() {
+        try {
+            int written = export();
+            Platform.runLater(() -> {
+                if (cancelled) {
+                    listener.onCancelled(written);
+                } else {
+                    listener.onCompleted(written);
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+            Platform.runLater(() -> listener.onFailed(e));
+        } catch (RuntimeException | Error e) {
+            e.printStackTrace();
+            IOException failure = new IOException(e.toString(), e);
+            Platform.runLater(() -> listener.onFailed(failure));
+        }
+    }
+
+    int export() throws IOException {
+        Files.createDirectories(albumDirectory);
+        Path imagesDir = albumDirectory.resolve("images");
+        Files.createDirectories(imagesDir);
+
+        AlbumManifest manifest = AlbumManifest.load(albumDirectory);
+        AlbumManifest.Entry[] inputs = new AlbumManifest.Entry[items.length];
+        boolean[] reused = new boolean[items.length];
+        Path[] destinations = plan(imagesDir, manifest, inputs, reused);
+        int[] order = new int[items.length];
+        int pending = 0;
+        int total = 0;
+        for (int i = 0; i < items.length; i++) {
+            if (destinations[i] != null) {
+                total++;
+                if (!reused[i]) {
+                    order[pending++] = i;
+                }
+            }
+        }
+        int unchanged = total - pending;
+
+        List<Integer> writtenItems = new ArrayList<>();
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        long[] costs = new long[pending];
+        long reserved = 0;
+        long nextCost = 0;
+        int submitted = 0;
+        int written = 0;
+        long started = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(WORKER_COUNT, pending)), runnable -> {
+            Thread thread = new Thread(runnable, "album-export-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (written < pending && !cancelled) {
+                while (submitted < pending && inFlight.size() < WORKER_COUNT * 2) {
+                    AlbumItem item = items[order[submitted]];
+                    Path source = Paths.get(item.getImagePath());
+                    if (nextCost == 0) {
+                        nextCost = costOf(source);
+                    }
+                    if (!inFlight.isEmpty() && reserved + nextCost > MEMORY_BUDGET) {
+                        break;
+                    }
+                    costs[submitted++] = nextCost;
+                    reserved += nextCost;
+                    nextCost = 0;
+                    inFlight.add(workers.submit(() -> cancelled ? null : AlbumImageRenderer.renderToPng(source, item)));
+                }
+
+                byte[] png = await(inFlight.poll());
+                reserved -= costs[written];
+                if (png == null) {
+                    break;
+                }
+                int index = order[written];
+                Files.write(destinations[index], png);
+                inputs[index] = inputs[index].withOutput(destinations[index].getFileName().toString(), png.length);
+                writtenItems.add(index);
+                written++;
+                reportProgress(unchanged + written, total, started);
+            }
+        } catch (IOException | RuntimeException e) {
+            recordWritten(manifest, writtenItems, inputs);
+            manifest.carryOverUnrecorded();
+            manifest.save();
+            throw e;
+        } finally {
+            workers.shutdownNow();
+        }
+
+        if (cancelled) {
+            for (int index : writtenItems) {
+                AlbumManifest.Entry previous = manifest.previous(keys[index]);
+                if (previous != null && previous.output().equals(inputs[index].output())) {
+                    manifest.record(keys[index], inputs[index]);
+                } else {
+                    Files.deleteIfExists(destinations[index]);
+                }
+            }
+            manifest.carryOverUnrecorded();
+            manifest.save();
+            return written;
+        }
+        recordWritten(manifest, writtenItems, inputs);
+        AlbumStore.writeAlbumJson(albumDirectory, items, destinations);
+        manifest.save();
+        for (String stale : manifest.staleOutputs()) {
+            Files.deleteIfExists(imagesDir.resolve(stale));
+        }
+        if (packFile != null && !cancelled) {
+            AlbumStore.packAlbum(albumDirectory, packFile);
+        }
+        return unchanged + written;
+    }
+
+    private Path[] plan(Path imagesDir, AlbumManifest manifest, AlbumManifest.Entry[] inputs, boolean[] reused)
+            throws IOException {
+        Path[] destinations = new Path[items.length];
+        Set<String> taken = new HashSet<>();
+        try (Stream<Path> listing = Files.list(imagesDir)) {
+            listing.forEach(path -> taken.add(nameKey(path.getFileName().toString())));
+        }
+        Set<String> claimed = new HashSet<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+
+        for (int i = 0; i < items.length; i++) {
+            AlbumItem item = items[i];
+            if (item == null || item.getImagePath() == null) {
+                continue;
+            }
+            ImageBytes.Attributes attributes;
+            try {
+                attributes = ImageBytes.readAttributes(Paths.get(item.getImagePath()));
+            } catch (IOException e) {
+                continue;
+            }
+            inputs[i] = new AlbumManifest.Entry(attributes.size(), attributes.lastModified(),
+                    valueOrEmpty(item.getImpressionText()), valueOrEmpty(item.getEmotion()), "", 0);
+
+            int occurrence = occurrences.merge(item.getImagePath(), 1, Integer::sum);
+            keys[i] = occurrence == 1 ? item.getImagePath() : item.getImagePath() + "\n" + occurrence;
+            AlbumManifest.Entry previous = manifest.previous(keys[i]);
+            if (previous != null && taken.contains(nameKey(previous.output())) && claimed.add(nameKey(previous.output()))) {
+                destinations[i] = imagesDir.resolve(previous.output());
+                reused[i] = previous.sameInputs(inputs[i]) && sizeOf(destinations[i]) == previous.outputSize();
+                if (reused[i]) {
+                    inputs[i] = previous;
+                    manifest.record(keys[i], previous);
+                }
+            }
+        }
+
+        Map<String, Integer> nextSuffix = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            if (inputs[i] == null || destinations[i] != null) {
+                continue;
+            }
+            String originalName = Paths.get(items[i].getImagePath()).getFileName().toString();
+            String baseName = originalName.contains(".")
+                    ? originalName.substring(0, originalName.lastIndexOf('.'))
+                    : originalName;
+            int suffix = nextSuffix.getOrDefault(nameKey(baseName), 0);
+            String name = imageName(baseName, suffix);
+            while (taken.contains(nameKey(name)) || claimed.contains(nameKey(name))) {
+                suffix++;
+                name = imageName(baseName, suffix);
+            }
+            nextSuffix.put(nameKey(baseName), suffix + 1);
+            claimed.add(nameKey(name));
+            destinations[i] = imagesDir.resolve(name);
+        }
+        return destinations;
+    }
+
+    private static String imageName(String baseName, int suffix) {
+        return suffix == 0 ? baseName + ".png" : baseName + "_" + suffix + ".png";
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String valueOrEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void recordWritten(AlbumManifest manifest, List<Integer> writtenItems, AlbumManifest.Entry[] inputs) {
+        for (int index : writtenItems) {
+            manifest.record(keys[index], inputs[index]);
+        }
+    }
+
+    private static long costOf(Path source) {
+        long estimate = AlbumImageRenderer.estimateMemory(source);
+        if (estimate <= 0) {
+            estimate = MEMORY_BUDGET / WORKER_COUNT;
+        }
+        return Math.min(estimate, MEMORY_BUDGET);
+    }
+
+    private byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void reportProgress(int written, int total, long started) {
+        if (listener == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (written < total && now - lastProgress < PROGRESS_INTERVAL_NANOS) {
+            return;
+        }
+        lastProgress = now;
+        double seconds = (now - started) / 1_000_000_000.0;
+        double rate = seconds > 0 ? written / seconds : 0;
+        Platform.runLater(() -> listener.onProgress(written, total, rate));
+    }
+
+    private static AlbumItem[] snapshot(AlbumItem[] items) {
+        AlbumItem[] copy = new AlbumItem[items.length];
+        for (int i = 0; i < items.length; i++) {
+            AlbumItem item = items[i];
+            if (item != null) {
+                copy[i] = new AlbumItem(item.getImagePath(), item.getImpressionText(), item.getEmotion());
+            }
+        }
+        return copy;
+    }
+}
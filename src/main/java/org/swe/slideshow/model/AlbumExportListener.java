@@ -0,0 +1,10 @@
+package org.swe.slideshow.model;
+
+import java.io.IOException;
+
+public interface AlbumExportListener {
+    void onProgress(int written, int total, double imagesPerSecond);
+    void onCompleted(int written);
+    void onCancelled(int written);
+    void onFailed(IOException error);
+}
@@ -0,0 +1,184 @@
+package org.swe.slideshow.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+final class AlbumIndex {
+    static final String FILE_NAME = "album.idx";
+    static final byte ABSENT = 0;
+    static final byte PRESENT = 1;
+    static final byte CHECK = 2;
+
+    private static final int MAGIC = 0x53414958;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int FIELDS = 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int presenceStart;
+    private final int stringsStart;
+
+    private AlbumIndex(MappedByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+        this.presenceStart = HEADER_SIZE + (count * FIELDS + 1) * Long.BYTES;
+        this.stringsStart = presenceStart + count;
+    }
+
+    static AlbumIndex open(Path albumDirectory, BasicFileAttributes json, long imagesModified) {
+        Path file = albumDirectory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(16) != json.size()
+                    || buffer.getLong(24) != json.lastModifiedTime().toMillis()
+                    || buffer.getLong(32) != imagesModified) {
+                return null;
+            }
+            int count = buffer.getInt(8);
+            long tableEnd = HEADER_SIZE + ((long) count * FIELDS + 1) * Long.BYTES;
+            if (count < 0 || tableEnd + count > size
+                    || tableEnd + count + buffer.getLong((int) tableEnd - Long.BYTES) != size) {
+                return null;
+            }
+            long stringsLength = size - tableEnd - count;
+            long previous = 0;
+            for (int slot = HEADER_SIZE; slot < tableEnd; slot += Long.BYTES) {
+                long offset = buffer.getLong(slot);
+                if (offset < previous || offset > stringsLength || (slot == HEADER_SIZE && offset != 0)) {
+                    return null;
+                }
+                previous = offset;
+            }
+            return new AlbumIndex(buffer, count);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static void write(Path albumDirectory, BasicFileAttributes json, long imagesModified,
+                      List<AlbumJsonReader.Entry> entries, byte[] presence) throws IOException {
+        Path file = albumDirectory.resolve(FILE_NAME);
+        Path tempFile = file.resolveSibling(FILE_NAME + ".tmp");
+        int count = entries.size();
+        long[] offsets = new long[count * FIELDS + 1];
+        long tableEnd = HEADER_SIZE + (long) offsets.length * Long.BYTES;
+        long stringsStart = tableEnd + count;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+            channel.position(stringsStart);
+            long position = 0;
+            int field = 0;
+            for (AlbumJsonReader.Entry entry : entries) {
+                for (String value : new String[]{entry.imagePath(), entry.text(), entry.emotion()}) {
+                    offsets[field++] = position;
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    position += bytes.length;
+                    put(channel, chunk, bytes, bytes.length);
+                }
+            }
+            offsets[field] = position;
+            drain(channel, chunk);
+            if (stringsStart + position > Integer.MAX_VALUE) {
+                throw new IOException("Album index exceeds the mappable size");
+            }
+
+            channel.position(0);
+            chunk.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0)
+                    .putLong(json.size()).putLong(json.lastModifiedTime().toMillis()).putLong(imagesModified);
+            for (long offset : offsets) {
+                if (!chunk.hasRemaining()) {
+                    drain(channel, chunk);
+                }
+                chunk.putLong(offset);
+            }
+            put(channel, chunk, presence, count);
+            drain(channel, chunk);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static void delete(Path albumDirectory) throws IOException {
+        Files.deleteIfExists(albumDirectory.resolve(FILE_NAME));
+    }
+
+    private static void put(FileChannel channel, ByteBuffer chunk, byte[] bytes, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            if (!chunk.hasRemaining()) {
+                drain(channel, chunk);
+            }
+            int part = Math.min(chunk.remaining(), length - written);
+            chunk.put(bytes, written, part);
+            written += part;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    int size() {
+        return count;
+    }
+
+    byte presence(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return buffer.get(presenceStart + index);
+    }
+
+    String imagePath(int index) {
+        return field(index, 0);
+    }
+
+    String text(int index) {
+        return field(index, 1);
+    }
+
+    String emotion(int index) {
+        return field(index, 2);
+    }
+
+    private String field(int index, int field) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int slot = HEADER_SIZE + (index * FIELDS + field) * Long.BYTES;
+        int start = (int) buffer.getLong(slot);
+        int end = (int) buffer.getLong(slot + Long.BYTES);
+        if (start == end) {
+            return "";
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringsStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -38,6 +38,8 @@ public class AlbumItem {
     }
 
     public boolean hasImpression() {
+        String impressionText = getImpressionText();
+        String emotion = getEmotion();
         return (impressionText != null && !impressionText.isBlank()) ||
                (emotion != null && !emotion.isBlank());
     }
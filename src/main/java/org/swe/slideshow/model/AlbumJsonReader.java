@@ -0,0 +1,264 @@
+package org.swe.slideshow.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+final class AlbumJsonReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    record Entry(String imagePath, String text, String emotion) {}
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder token = new StringBuilder();
+    private boolean endOfInput;
+    private boolean flushed;
+
+    AlbumJsonReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        chars.flip();
+    }
+
+    int readItems(Consumer<Entry> consumer) throws IOException {
+        if (nextSignificant() != '{') {
+            throw new IOException("Invalid album.json format");
+        }
+        int count = -1;
+        if (peekSignificant() == '}') {
+            next();
+        } else {
+            while (true) {
+                String key = readKey();
+                if ("items".equals(key) && peekSignificant() == '[') {
+                    next();
+                    count = readArray(consumer);
+                } else {
+                    skipValue();
+                }
+                int separator = nextSignificant();
+                if (separator == '}') {
+                    break;
+                }
+                if (separator != ',') {
+                    throw new IOException("Invalid album.json format");
+                }
+            }
+        }
+        if (count < 0) {
+            throw new IOException("Invalid album.json format: items array not found");
+        }
+        return count;
+    }
+
+    private int readArray(Consumer<Entry> consumer) throws IOException {
+        int count = 0;
+        if (peekSignificant() == ']') {
+            next();
+            return count;
+        }
+        while (true) {
+            if (peekSignificant() == '{') {
+                next();
+                Entry entry = readItem();
+                if (entry != null) {
+                    consumer.accept(entry);
+                    count++;
+                }
+            } else {
+                skipValue();
+            }
+            int separator = nextSignificant();
+            if (separator == ']') {
+                return count;
+            }
+            if (separator != ',') {
+                throw new IOException("Invalid album.json format");
+            }
+        }
+    }
+
+    private Entry readItem() throws IOException {
+        String imagePath = null;
+        String text = "";
+        String emotion = "";
+        if (peekSignificant() == '}') {
+            next();
+            return null;
+        }
+        while (true) {
+            String key = readKey();
+            String value = peekSignificant() == '"' ? readString() : null;
+            if (value == null) {
+                skipValue();
+            } else if ("imagePath".equals(key)) {
+                imagePath = value;
+            } else if ("text".equals(key)) {
+                text = value;
+            } else if ("emotion".equals(key)) {
+                emotion = value;
+            }
+            int separator = nextSignificant();
+            if (separator == '}') {
+                break;
+            }
+            if (separator != ',') {
+                throw new IOException("Invalid album.json format");
+            }
+        }
+        return imagePath != null ? new Entry(imagePath, text, emotion) : null;
+    }
+
+    private String readKey() throws IOException {
+        if (peekSignificant() != '"') {
+            throw new IOException("Invalid album.json format");
+        }
+        String key = readString();
+        if (nextSignificant() != ':') {
+            throw new IOException("Invalid album.json format");
+        }
+        return key;
+    }
+
+    private String readString() throws IOException {
+        next();
+        token.setLength(0);
+        while (true) {
+            int ch = next();
+            if (ch < 0) {
+                throw new IOException("Invalid album.json format: unterminated string");
+            }
+            if (ch == '"') {
+                return token.toString();
+            }
+            if (ch != '\\') {
+                token.append((char) ch);
+                continue;
+            }
+            int escaped = next();
+            switch (escaped) {
+                case 'b' -> token.append('\b');
+                case 'f' -> token.append('\f');
+                case 'n' -> token.append('\n');
+                case 'r' -> token.append('\r');
+                case 't' -> token.append('\t');
+                case 'u' -> appendUnicodeEscape();
+                case -1 -> throw new IOException("Invalid album.json format: unterminated string");
+                default -> token.append((char) escaped);
+            }
+        }
+    }
+
+    private void appendUnicodeEscape() throws IOException {
+        int value = 0;
+        boolean valid = true;
+        for (int i = 0; i < 4; i++) {
+            if (peek() == '"') {
+                return;
+            }
+            int digit = Character.digit(next(), 16);
+            if (digit < 0) {
+                valid = false;
+            }
+            value = value * 16 + digit;
+        }
+        if (valid) {
+            token.append((char) value);
+        }
+    }
+
+    private void skipValue() throws IOException {
+        int ch = peekSignificant();
+        if (ch == '"') {
+            readString();
+            return;
+        }
+        if (ch == '{' || ch == '[') {
+            int depth = 0;
+            do {
+                ch = peekSignificant();
+                if (ch == '"') {
+                    readString();
+                    continue;
+                }
+                next();
+                if (ch == '{' || ch == '[') {
+                    depth++;
+                } else if (ch == '}' || ch == ']') {
+                    depth--;
+                } else if (ch < 0) {
+                    throw new IOException("Invalid album.json format");
+                }
+            } while (depth > 0);
+            return;
+        }
+        while (ch >= 0 && ch != ',' && ch != '}' && ch != ']' && !Character.isWhitespace(ch)) {
+            next();
+            ch = peek();
+        }
+    }
+
+    private int nextSignificant() throws IOException {
+        peekSignificant();
+        return next();
+    }
+
+    private int peekSignificant() throws IOException {
+        int ch = peek();
+        while (ch >= 0 && Character.isWhitespace(ch)) {
+            next();
+            ch = peek();
+        }
+        return ch;
+    }
+
+    private int peek() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get(chars.position());
+    }
+
+    private int next() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return chars.get();
+    }
+
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0) {
+            if (!endOfInput && channel.read(bytes) < 0) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (endOfInput) {
+                if (!flushed) {
+                    decoder.flush(chars);
+                    flushed = true;
+                }
+                break;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
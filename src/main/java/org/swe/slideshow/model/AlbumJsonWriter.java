@@ -0,0 +1,79 @@
+package org.swe.slideshow.model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+final class AlbumJsonWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private int count;
+
+    AlbumJsonWriter(WritableByteChannel channel) throws IOException {
+        this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        out.write("{\n  \"items\": [\n");
+    }
+
+    void writeItem(String imagePath, String text, String emotion) throws IOException {
+        if (count++ > 0) {
+            out.write(",\n");
+        }
+        out.write("    {\n      \"imagePath\": \"");
+        writeEscaped(imagePath);
+        out.write("\",\n      \"text\": \"");
+        writeEscaped(text);
+        out.write("\",\n      \"emotion\": \"");
+        writeEscaped(emotion);
+        out.write("\"\n    }");
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            String replacement;
+            switch (ch) {
+                case '\\' -> replacement = "\\\\";
+                case '"' -> replacement = "\\\"";
+                case '\b' -> replacement = "\\b";
+                case '\f' -> replacement = "\\f";
+                case '\n' -> replacement = "\\n";
+                case '\r' -> replacement = "\\r";
+                case '\t' -> replacement = "\\t";
+                default -> replacement = null;
+            }
+            if (replacement == null && ch >= 0x20) {
+                continue;
+            }
+            out.write(value, start, i - start);
+            if (replacement != null) {
+                out.write(replacement);
+            } else {
+                out.write("\\u00");
+                out.write(HEX_DIGITS[ch >> 4]);
+                out.write(HEX_DIGITS[ch & 0xF]);
+            }
+            start = i + 1;
+        }
+        out.write(value, start, length - start);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (count > 0) {
+            out.write("\n");
+        }
+        out.write("  ]\n}");
+        out.close();
+    }
+}
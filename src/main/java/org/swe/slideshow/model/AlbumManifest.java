@@ -0,0 +1,141 @@
+package org.swe.slideshow.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+class AlbumManifest {
+    static final String FILE_NAME = "album.manifest";
+
+    private static final int MAGIC = 0x53414D46;
+    private static final int VERSION = 1;
+
+    record Entry(long size, long modifiedTime, String text, String emotion, String output, long outputSize) {
+        boolean sameInputs(Entry other) {
+            return other != null
+                    && size == other.size
+                    && modifiedTime == other.modifiedTime
+                    && Objects.equals(text, other.text)
+                    && Objects.equals(emotion, other.emotion);
+        }
+
+        Entry withOutput(String output, long outputSize) {
+            return new Entry(size, modifiedTime, text, emotion, output, outputSize);
+        }
+    }
+
+    private final Path storageFile;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new LinkedHashMap<>();
+
+    private AlbumManifest(Path storageFile, Map<String, Entry> previous) {
+        this.storageFile = storageFile;
+        this.previous = previous;
+    }
+
+    static AlbumManifest load(Path albumDirectory) {
+        Path storageFile = albumDirectory.resolve(FILE_NAME);
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.exists(storageFile)) {
+            try {
+                readEntries(storageFile, entries);
+            } catch (IOException | RuntimeException e) {
+                entries.clear();
+            }
+        }
+        return new AlbumManifest(storageFile, entries);
+    }
+
+    Entry previous(String source) {
+        return previous.get(source);
+    }
+
+    void record(String source, Entry entry) {
+        current.put(source, entry);
+    }
+
+    void carryOverUnrecorded() {
+        for (Map.Entry<String, Entry> entry : previous.entrySet()) {
+            current.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    Set<String> staleOutputs() {
+        Set<String> referenced = new HashSet<>();
+        for (Entry entry : current.values()) {
+            referenced.add(entry.output());
+        }
+        Set<String> stale = new HashSet<>();
+        for (Entry entry : previous.values()) {
+            if (!referenced.contains(entry.output())) {
+                stale.add(entry.output());
+            }
+        }
+        return stale;
+    }
+
+    void save() throws IOException {
+        Path tempFile = storageFile.resolveSibling(storageFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(current.size());
+            for (Map.Entry<String, Entry> entry : current.entrySet()) {
+                Entry value = entry.getValue();
+                writeString(out, entry.getKey());
+                out.writeLong(value.size());
+                out.writeLong(value.modifiedTime());
+                writeString(out, value.text());
+                writeString(out, value.emotion());
+                writeString(out, value.output());
+                out.writeLong(value.outputSize());
+            }
+        }
+        Files.move(tempFile, storageFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void readEntries(Path storageFile, Map<String, Entry> entries) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storageFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String source = readString(in);
+                long size = in.readLong();
+                long modifiedTime = in.readLong();
+                String text = readString(in);
+                String emotion = readString(in);
+                String output = readString(in);
+                long outputSize = in.readLong();
+                entries.put(source, new Entry(size, modifiedTime, text, emotion, output, outputSize));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted album manifest");
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,243 @@
+package org.swe.slideshow.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class AlbumPack {
+    public static final String EXTENSION = ".albumpack";
+
+    private static final int MAGIC = 0x53415043;
+    private static final int VERSION = 1;
+    private static final int PAGE_SIZE = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Map<Path, AlbumPack> OPEN_PACKS = new ConcurrentHashMap<>();
+
+    private final Path packFile;
+    private final FileChannel channel;
+    private final long lastModified;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final String[] names;
+    private final String[] texts;
+    private final String[] emotions;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final MappedByteBuffer[] slices;
+
+    private AlbumPack(Path packFile, FileChannel channel, long lastModified, int count) {
+        this.packFile = packFile;
+        this.channel = channel;
+        this.lastModified = lastModified;
+        this.offsets = new long[count];
+        this.lengths = new int[count];
+        this.names = new String[count];
+        this.texts = new String[count];
+        this.emotions = new String[count];
+        this.slices = new MappedByteBuffer[count];
+    }
+
+    public static AlbumPack open(Path packFile) throws IOException {
+        Path key = packFile.toAbsolutePath().normalize();
+        FileChannel channel = FileChannel.open(key, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = read(channel, 0, 32);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not an album pack: " + packFile.getFileName());
+            }
+            int count = header.getInt();
+            header.getInt();
+            long indexOffset = header.getLong();
+            long indexLength = header.getLong();
+            if (count < 0 || indexOffset < PAGE_SIZE || indexLength > Integer.MAX_VALUE
+                    || indexOffset + indexLength != size) {
+                throw new IOException("Corrupted album pack: " + packFile.getFileName());
+            }
+
+            AlbumPack pack = new AlbumPack(key, channel, Files.getLastModifiedTime(key).toMillis(), count);
+            ByteBuffer index = read(channel, indexOffset, (int) indexLength);
+            for (int i = 0; i < count; i++) {
+                pack.offsets[i] = index.getLong();
+                pack.lengths[i] = index.getInt();
+                pack.names[i] = readString(index);
+                pack.texts[i] = readString(index);
+                pack.emotions[i] = readString(index);
+                if (pack.offsets[i] % PAGE_SIZE != 0 || pack.lengths[i] < 0
+                        || pack.offsets[i] + pack.lengths[i] > indexOffset) {
+                    throw new IOException("Corrupted album pack: " + packFile.getFileName());
+                }
+                pack.positions.putIfAbsent(pack.names[i], i);
+            }
+
+            OPEN_PACKS.put(key, pack);
+            return pack;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (e instanceof RuntimeException) {
+                throw new IOException("Corrupted album pack: " + packFile.getFileName(), e);
+            }
+            throw e;
+        }
+    }
+
+    static void write(Path packFile, AlbumItem[] items) throws IOException {
+        Path tempFile = packFile.resolveSibling(packFile.getFileName() + ".tmp");
+        long[] offsets = new long[items.length];
+        int[] lengths = new int[items.length];
+        try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long position = PAGE_SIZE;
+            for (int i = 0; i < items.length; i++) {
+                try (FileChannel in = FileChannel.open(Path.of(items[i].getImagePath()), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    if (size > Integer.MAX_VALUE) {
+                        throw new IOException("Image is too large for an album pack: " + items[i].getImagePath());
+                    }
+                    long copied = 0;
+                    while (copied < size) {
+                        long transferred = out.transferFrom(in, position + copied, size - copied);
+                        if (transferred <= 0) {
+                            throw new IOException("Unexpected end of image: " + items[i].getImagePath());
+                        }
+                        copied += transferred;
+                    }
+                    offsets[i] = position;
+                    lengths[i] = (int) size;
+                    position = pageAligned(position + size);
+                }
+            }
+
+            ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+            out.position(position);
+            for (int i = 0; i < items.length; i++) {
+                put(out, chunk, ByteBuffer.allocate(Long.BYTES + Integer.BYTES)
+                        .putLong(offsets[i]).putInt(lengths[i]).array());
+                putString(out, chunk, Path.of(items[i].getImagePath()).getFileName().toString());
+                putString(out, chunk, items[i].getImpressionText());
+                putString(out, chunk, items[i].getEmotion());
+            }
+            drain(out, chunk);
+            long indexLength = out.position() - position;
+
+            chunk.putInt(MAGIC).putInt(VERSION).putInt(items.length).putInt(0)
+                    .putLong(position).putLong(indexLength);
+            chunk.flip();
+            long headerPosition = 0;
+            while (chunk.hasRemaining()) {
+                headerPosition += out.write(chunk, headerPosition);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, packFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static ByteBuffer slice(Path imagePath) throws IOException {
+        AlbumPack pack = packOf(imagePath);
+        Integer position = pack != null ? pack.positions.get(imagePath.getFileName().toString()) : null;
+        return position != null ? pack.slice(position) : null;
+    }
+
+    static ImageBytes.Attributes attributes(Path imagePath) {
+        AlbumPack pack = packOf(imagePath);
+        Integer position = pack != null ? pack.positions.get(imagePath.getFileName().toString()) : null;
+        return position != null ? new ImageBytes.Attributes(pack.lengths[position], pack.lastModified) : null;
+    }
+
+    private static AlbumPack packOf(Path imagePath) {
+        Path parent = imagePath.getParent();
+        return parent != null ? OPEN_PACKS.get(parent) : null;
+    }
+
+    public Path getPackFile() {
+        return packFile;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public AlbumItem[] items() {
+        AlbumItem[] items = new AlbumItem[names.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new AlbumItem(packFile.resolve(names[i]).toString(), texts[i], emotions[i]);
+        }
+        return items;
+    }
+
+    private synchronized ByteBuffer slice(int index) throws IOException {
+        if (slices[index] == null) {
+            slices[index] = channel.map(FileChannel.MapMode.READ_ONLY, offsets[index], lengths[index]);
+        }
+        return slices[index].duplicate();
+    }
+
+    void release() {
+        OPEN_PACKS.remove(packFile, this);
+        close();
+    }
+
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static long pageAligned(long position) {
+        return (position + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of album pack");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(FileChannel out, ByteBuffer chunk, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        put(out, chunk, ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        put(out, chunk, bytes);
+    }
+
+    private static void put(FileChannel out, ByteBuffer chunk, byte[] bytes) throws IOException {
+        int written = 0;
+        while (written < bytes.length) {
+            if (!chunk.hasRemaining()) {
+                drain(out, chunk);
+            }
+            int part = Math.min(chunk.remaining(), bytes.length - written);
+            chunk.put(bytes, written, part);
+            written += part;
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        chunk.clear();
+    }
+}
@@ -1,91 +1,106 @@
 package org.swe.slideshow.model;
 
-import org.swe.slideshow.visual.AlbumImageRenderer;
-
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class AlbumStore {
-    private static final Pattern ITEM_PATTERN = Pattern.compile(
-            "\\{\\s*\"imagePath\"\\s*:\\s*\"((?:\\\\.|[^\\\\\"])*)\"\\s*,\\s*\"text\"\\s*:\\s*\"((?:\\\\.|[^\\\\\"])*)\"\\s*,\\s*\"emotion\"\\s*:\\s*\"((?:\\\\.|[^\\\\\"])*)\"\\s*}\\s*(?:,|$)",
-            Pattern.DOTALL);
+    private static final int INDEX_THRESHOLD = 1000;
 
     public static void saveAlbum(Path albumDirectory, AlbumItem[] items) throws IOException {
         if (albumDirectory == null || items == null) {
             throw new IllegalArgumentException("Album directory and items cannot be null");
         }
+        new AlbumExport(albumDirectory, items, null, null).export();
+    }
 
-        Files.createDirectories(albumDirectory);
-        Path imagesDir = albumDirectory.resolve("images");
-        Files.createDirectories(imagesDir);
-
-        StringBuilder jsonBuilder = new StringBuilder();
-        jsonBuilder.append("{\n  \"items\": [\n");
+    public static AlbumExport exportAlbum(Path albumDirectory, AlbumItem[] items, AlbumExportListener listener) {
+        return exportAlbum(albumDirectory, items, null, listener);
+    }
 
-        java.util.List<String> itemJsonList = new java.util.ArrayList<>();
+    public static AlbumExport exportAlbum(Path albumDirectory, AlbumItem[] items, Path packFile,
+                                          AlbumExportListener listener) {
+        if (albumDirectory == null || items == null || listener == null) {
+            throw new IllegalArgumentException("Album directory, items and listener cannot be null");
+        }
+        AlbumExport export = new AlbumExport(albumDirectory, items, packFile, listener);
+        export.start();
+        return export;
+    }
 
-        for (AlbumItem item : items) {
-            if (item == null || item.getImagePath() == null) {
-                continue;
-            }
+    public static void packAlbum(Path albumDirectory, Path packFile) throws IOException {
+        if (albumDirectory == null || packFile == null) {
+            throw new IllegalArgumentException("Album directory and pack file cannot be null");
+        }
+        AlbumPack.write(packFile, loadAlbum(albumDirectory));
+    }
 
-            Path sourceImage = Paths.get(item.getImagePath());
-            if (!Files.exists(sourceImage)) {
-                continue;
+    static void writeAlbumJson(Path albumDirectory, AlbumItem[] items, Path[] destinations) throws IOException {
+        Path jsonFile = albumDirectory.resolve("album.json");
+        Path tempFile = jsonFile.resolveSibling("album.json.tmp");
+        List<AlbumJsonReader.Entry> entries = new ArrayList<>();
+        try (AlbumJsonWriter writer = new AlbumJsonWriter(FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            for (int i = 0; i < items.length; i++) {
+                if (destinations[i] == null) {
+                    continue;
+                }
+                AlbumItem item = items[i];
+                AlbumJsonReader.Entry entry = new AlbumJsonReader.Entry(
+                        "images/" + destinations[i].getFileName().toString(),
+                        item.getImpressionText() != null ? item.getImpressionText() : "",
+                        item.getEmotion() != null ? item.getEmotion() : "");
+                writer.writeItem(entry.imagePath(), entry.text(), entry.emotion());
+                entries.add(entry);
             }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, jsonFile, StandardCopyOption.REPLACE_EXISTING);
+        updateIndex(albumDirectory, jsonFile, entries);
+    }
 
-            String originalName = sourceImage.getFileName().toString();
-            String baseName = originalName.contains(".")
-                    ? originalName.substring(0, originalName.lastIndexOf('.'))
-                    : originalName;
-            Path destImage = imagesDir.resolve(baseName + ".png");
-
-            int copyIndex = 1;
-            while (Files.exists(destImage)) {
-                destImage = imagesDir.resolve(baseName + "_" + copyIndex + ".png");
-                copyIndex++;
-            }
+    public static AlbumItem[] loadAlbum(Path albumDirectory) throws IOException {
+        IndexedAlbum album = openIndexed(albumDirectory);
+        if (album != null) {
+            return album.items();
+        }
 
-            AlbumImageRenderer.renderWithEmotion(sourceImage, destImage, item);
-
-            String relativePath = "images/" + destImage.getFileName().toString();
-            StringBuilder itemBuilder = new StringBuilder();
-            itemBuilder.append("    {\n")
-                    .append("      \"imagePath\": \"")
-                    .append(escape(relativePath))
-                    .append("\",\n")
-                    .append("      \"text\": \"")
-                    .append(escape(item.getImpressionText() != null ? item.getImpressionText() : ""))
-                    .append("\",\n")
-                    .append("      \"emotion\": \"")
-                    .append(escape(item.getEmotion() != null ? item.getEmotion() : ""))
-                    .append("\"\n")
-                    .append("    }");
-            itemJsonList.add(itemBuilder.toString());
-        }
-
-        for (int i = 0; i < itemJsonList.size(); i++) {
-            jsonBuilder.append(itemJsonList.get(i));
-            if (i < itemJsonList.size() - 1) {
-                jsonBuilder.append(",");
+        Path jsonFile = albumDirectory.resolve("album.json");
+        List<AlbumItem> items = new ArrayList<>();
+        List<AlbumJsonReader.Entry> entries = new ArrayList<>();
+        try (AlbumJsonReader reader = new AlbumJsonReader(FileChannel.open(jsonFile, StandardOpenOption.READ))) {
+            reader.readItems(entries::add);
+        }
+        long imagesModified = imagesModified(albumDirectory);
+        ImageLocator locator = new ImageLocator(albumDirectory, true);
+        byte[] presence = new byte[entries.size()];
+        for (int i = 0; i < presence.length; i++) {
+            AlbumJsonReader.Entry entry = entries.get(i);
+            presence[i] = locator.presenceOf(entry.imagePath());
+            String imagePath = locator.resolve(entry.imagePath(), presence[i]);
+            if (imagePath != null) {
+                items.add(new AlbumItem(imagePath, entry.text(), entry.emotion()));
             }
-            jsonBuilder.append("\n");
+        }
+        if (Files.isWritable(albumDirectory)) {
+            updateIndex(albumDirectory, jsonFile, imagesModified, entries, presence);
         }
 
-        jsonBuilder.append("  ]\n}");
-
-        Path jsonFile = albumDirectory.resolve("album.json");
-        Files.writeString(jsonFile, jsonBuilder.toString(), StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return items.toArray(new AlbumItem[0]);
     }
 
-    public static AlbumItem[] loadAlbum(Path albumDirectory) throws IOException {
+    static IndexedAlbum openIndexed(Path albumDirectory) throws IOException {
         if (albumDirectory == null || !Files.exists(albumDirectory)) {
             throw new IllegalArgumentException("Album directory does not exist");
         }
@@ -95,108 +110,113 @@ public class AlbumStore {
             throw new IOException("album.json not found in album directory");
         }
 
-        String content = Files.readString(jsonFile, StandardCharsets.UTF_8).trim();
-        if (content.length() < 10 || !content.contains("\"items\"")) {
-            throw new IOException("Invalid album.json format");
+        AlbumIndex index = AlbumIndex.open(albumDirectory, Files.readAttributes(jsonFile, BasicFileAttributes.class),
+                imagesModified(albumDirectory));
+        if (index == null) {
+            return null;
         }
-
-        int itemsStart = content.indexOf('[');
-        int itemsEnd = content.lastIndexOf(']');
-        if (itemsStart < 0 || itemsEnd < 0 || itemsEnd <= itemsStart) {
-            throw new IOException("Invalid album.json format: items array not found");
+        ImageLocator locator = new ImageLocator(albumDirectory, false);
+        int[] rows = new int[index.size()];
+        int count = 0;
+        for (int i = 0; i < rows.length; i++) {
+            byte presence = index.presence(i);
+            if (presence == AlbumIndex.PRESENT
+                    || presence == AlbumIndex.CHECK && locator.resolve(index.imagePath(i), presence) != null) {
+                rows[count++] = i;
+            }
         }
+        return new IndexedAlbum(index, locator, count == rows.length ? null : rows, count);
+    }
 
-        String itemsBody = content.substring(itemsStart + 1, itemsEnd);
-        java.util.List<AlbumItem> items = new java.util.ArrayList<>();
-
-        Matcher matcher = ITEM_PATTERN.matcher(itemsBody);
-        while (matcher.find()) {
-            String relativeImagePath = unescape(matcher.group(1));
-            String text = unescape(matcher.group(2));
-            String emotion = unescape(matcher.group(3));
+    private static void updateIndex(Path albumDirectory, Path jsonFile, List<AlbumJsonReader.Entry> entries) {
+        long imagesModified = imagesModified(albumDirectory);
+        ImageLocator locator = new ImageLocator(albumDirectory, entries.size() >= INDEX_THRESHOLD);
+        byte[] presence = new byte[entries.size()];
+        for (int i = 0; i < presence.length; i++) {
+            presence[i] = locator.presenceOf(entries.get(i).imagePath());
+        }
+        updateIndex(albumDirectory, jsonFile, imagesModified, entries, presence);
+    }
 
-            Path imagePath = albumDirectory.resolve(relativeImagePath);
-            if (Files.exists(imagePath)) {
-                items.add(new AlbumItem(imagePath.toAbsolutePath().toString(), text, emotion));
+    private static void updateIndex(Path albumDirectory, Path jsonFile, long imagesModified,
+                                    List<AlbumJsonReader.Entry> entries, byte[] presence) {
+        try {
+            if (entries.size() < INDEX_THRESHOLD) {
+                AlbumIndex.delete(albumDirectory);
+            } else {
+                AlbumIndex.write(albumDirectory, Files.readAttributes(jsonFile, BasicFileAttributes.class),
+                        imagesModified, entries, presence);
             }
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+    }
 
-        return items.toArray(new AlbumItem[0]);
+    private static long imagesModified(Path albumDirectory) {
+        try {
+            return Files.getLastModifiedTime(albumDirectory.resolve("images")).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
     }
 
-    private static String escape(String value) {
-        if (value == null) {
-            return "";
-        }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < value.length(); i++) {
-            char ch = value.charAt(i);
-            switch (ch) {
-                case '\\' -> builder.append("\\\\");
-                case '"' -> builder.append("\\\"");
-                case '\b' -> builder.append("\\b");
-                case '\f' -> builder.append("\\f");
-                case '\n' -> builder.append("\\n");
-                case '\r' -> builder.append("\\r");
-                case '\t' -> builder.append("\\t");
-                default -> {
-                    if (ch < 0x20) {
-                        builder.append(String.format("\\u%04x", (int) ch));
-                    } else {
-                        builder.append(ch);
+    static final class ImageLocator {
+        private static final String IMAGES_PREFIX = "images/";
+
+        private final Path albumDirectory;
+        private final String imagesPrefix;
+        private final Set<String> imageNames = new HashSet<>();
+        private final boolean listed;
+
+        ImageLocator(Path albumDirectory, boolean list) {
+            this.albumDirectory = albumDirectory;
+            Path imagesDir = albumDirectory.resolve("images").toAbsolutePath();
+            this.imagesPrefix = imagesDir + imagesDir.getFileSystem().getSeparator();
+            boolean complete = false;
+            if (list) {
+                try (DirectoryStream<Path> listing = Files.newDirectoryStream(imagesDir)) {
+                    for (Path path : listing) {
+                        imageNames.add(path.getFileName().toString());
                     }
+                    complete = true;
+                } catch (IOException e) {
+                    imageNames.clear();
                 }
             }
+            this.listed = complete;
         }
-        return builder.toString();
-    }
 
-    private static String unescape(String value) {
-        if (value == null || value.isEmpty()) {
-            return "";
-        }
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < value.length(); i++) {
-            char ch = value.charAt(i);
-            if (ch == '\\' && i + 1 < value.length()) {
-                char next = value.charAt(i + 1);
-                switch (next) {
-                    case '\\' -> builder.append('\\');
-                    case '"' -> builder.append('"');
-                    case 'b' -> builder.append('\b');
-                    case 'f' -> builder.append('\f');
-                    case 'n' -> builder.append('\n');
-                    case 'r' -> builder.append('\r');
-                    case 't' -> builder.append('\t');
-                    case 'u' -> {
-                        if (i + 5 < value.length()) {
-                            String hex = value.substring(i + 2, i + 6);
-                            if (isHexSequence(hex)) {
-                                builder.append((char) Integer.parseInt(hex, 16));
-                            }
-                            i += 4;
-                        }
-                    }
-                    default -> builder.append(next);
-                }
-                i++;
-            } else {
-                builder.append(ch);
+        byte presenceOf(String relativePath) {
+            if (!listed || !isFlatImage(relativePath)) {
+                return AlbumIndex.CHECK;
             }
+            return imageNames.contains(relativePath.substring(IMAGES_PREFIX.length()))
+                    ? AlbumIndex.PRESENT
+                    : AlbumIndex.ABSENT;
         }
-        return builder.toString();
-    }
 
-    private static boolean isHexSequence(String value) {
-        if (value == null || value.length() != 4) {
-            return false;
+        String resolve(String relativePath, byte presence) {
+            if (presence == AlbumIndex.ABSENT
+                    || presence == AlbumIndex.CHECK && !Files.exists(albumDirectory.resolve(relativePath))) {
+                return null;
+            }
+            return pathOf(relativePath, presence);
         }
-        for (int i = 0; i < value.length(); i++) {
-            if (Character.digit(value.charAt(i), 16) == -1) {
-                return false;
+
+        String pathOf(String relativePath, byte presence) {
+            if (presence == AlbumIndex.PRESENT) {
+                return imagesPrefix + relativePath.substring(IMAGES_PREFIX.length());
             }
+            return albumDirectory.resolve(relativePath).toAbsolutePath().toString();
+        }
+
+        private static boolean isFlatImage(String relativePath) {
+            return relativePath.startsWith(IMAGES_PREFIX)
+                    && relativePath.length() > IMAGES_PREFIX.length()
+                    && relativePath.indexOf('/', IMAGES_PREFIX.length()) < 0
+                    && relativePath.indexOf('\\', IMAGES_PREFIX.length()) < 0
+                    && !relativePath.endsWith("/..") && !relativePath.equals(IMAGES_PREFIX + "..")
+                    && !relativePath.equals(IMAGES_PREFIX + ".");
         }
-        return true;
     }
 }
-
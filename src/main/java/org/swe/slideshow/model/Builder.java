@@ -1,6 +1,7 @@
 package org.swe.slideshow.model;
 
 public interface Builder {
+    void reset();
     void setView(int N, char norm, char select);
     void lineBounds(float start, float stop);
     void linePaint(float measure);
@@ -0,0 +1,8 @@
+package org.swe.slideshow.model;
+
+public class BuilderCanvasIndicator extends BuilderIndicator {
+
+    public BuilderCanvasIndicator() {
+        super(new CanvasIndicator());
+    }
+}
@@ -3,7 +3,20 @@ package org.swe.slideshow.model;
 import javafx.scene.paint.Color;
 
 public class BuilderIndicator implements Builder {
-    private final Indicator indicator = new Indicator();
+    private final Indicator indicator;
+
+    public BuilderIndicator() {
+        this(new ShapeIndicator());
+    }
+
+    protected BuilderIndicator(Indicator indicator) {
+        this.indicator = indicator;
+    }
+
+    @Override
+    public void reset() {
+        indicator.reset();
+    }
     
     @Override
     public void setView(int N, char norm, char select) {
@@ -50,7 +63,7 @@ public class BuilderIndicator implements Builder {
     
     @Override
     public void addTitle(String name) {
-        indicator.addTitle(name);
+        indicator.setTitle(name);
     }
     
     @Override
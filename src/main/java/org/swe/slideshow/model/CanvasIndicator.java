@@ -0,0 +1,222 @@
+package org.swe.slideshow.model;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.StrokeLineCap;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+public class CanvasIndicator extends Indicator {
+    private static final double TITLE_HEIGHT = 24.0;
+    private static final double TEXT_HEIGHT = 26.0;
+    private static final double TEXT_GAP = 15.0;
+    private static final double BAR_ROW_HEIGHT = BAR_HEIGHT + 10;
+    private static final double CIRCLE_SIZE = (CIRCLE_RADIUS + CIRCLE_STROKE_WIDTH) * 2;
+    private static final Font TITLE_FONT = new Font(14);
+    private static final Font TEXT_FONT = new Font(16);
+    private static final Font CLOCK_FONT = new Font(18);
+    private static final int TITLE = 1;
+    private static final int GAUGE = 2;
+    private static final int TEXT = 4;
+
+    private final Canvas canvas = new Canvas();
+    private boolean hasText;
+    private String title;
+    private String percentLabel = "";
+    private String fractionLabel = "";
+    private String clockLabel = "00:00";
+    private int dirty;
+
+    public CanvasIndicator() {
+        getPanel().getChildren().add(canvas);
+    }
+
+    @Override
+    public void setPaint(Color normalColor) {
+        if (!normalColor.equals(this.normalColor)) {
+            this.normalColor = normalColor;
+            redraw(GAUGE);
+        }
+    }
+
+    @Override
+    public void setSelectedColor(Color selectedColor) {
+        if (!selectedColor.equals(this.selectedColor)) {
+            this.selectedColor = selectedColor;
+            redraw(GAUGE | TEXT);
+        }
+    }
+
+    @Override
+    public void setTitle(String title) {
+        if (title.equals(this.title)) {
+            return;
+        }
+        boolean added = this.title == null;
+        this.title = title;
+        if (added) {
+            relayout();
+        } else {
+            redraw(TITLE);
+        }
+    }
+
+    @Override
+    public void addTitle(String title) {
+        setTitle(title);
+    }
+
+    @Override
+    public void addProgressBar(float measure) {
+        currentValue = measure;
+        if (gauge != Gauge.BAR) {
+            gauge = Gauge.BAR;
+            relayout();
+        }
+        updateGauge();
+    }
+
+    @Override
+    public void addCircularProgress(float measure) {
+        currentValue = measure;
+        if (gauge != Gauge.CIRCLE) {
+            gauge = Gauge.CIRCLE;
+            shownSeconds = 0;
+            clockLabel = "00:00";
+            relayout();
+        }
+        updateGauge();
+    }
+
+    @Override
+    protected void ensureTextRow() {
+        if (!hasText) {
+            hasText = true;
+            relayout();
+        }
+    }
+
+    @Override
+    protected boolean hasTextRow() {
+        return hasText;
+    }
+
+    @Override
+    protected void applyText(String percentLabel, String fractionLabel) {
+        if (percentLabel != null) {
+            this.percentLabel = percentLabel;
+        }
+        if (fractionLabel != null) {
+            this.fractionLabel = fractionLabel;
+        }
+        redraw(TEXT);
+    }
+
+    @Override
+    protected void applyClock(String clockLabel) {
+        this.clockLabel = clockLabel;
+        redraw(GAUGE);
+    }
+
+    @Override
+    protected void applyBarPixels(int pixels) {
+        redraw(GAUGE);
+    }
+
+    @Override
+    protected void applyArcSteps(long steps) {
+        redraw(GAUGE);
+    }
+
+    private void relayout() {
+        canvas.setWidth(gauge == Gauge.CIRCLE ? CIRCLE_SIZE : FIXED_BAR_WIDTH);
+        canvas.setHeight(titleHeight() + gaugeHeight() + (hasText ? TEXT_HEIGHT : 0));
+        redraw(TITLE | GAUGE | TEXT);
+    }
+
+    private double titleHeight() {
+        return title != null ? TITLE_HEIGHT : 0;
+    }
+
+    private double gaugeHeight() {
+        switch (gauge) {
+            case BAR: return BAR_ROW_HEIGHT;
+            case CIRCLE: return CIRCLE_SIZE;
+            default: return 0;
+        }
+    }
+
+    private void redraw(int regions) {
+        dirty |= regions;
+        if (dirty == 0) {
+            return;
+        }
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        if ((dirty & TITLE) != 0 && title != null) {
+            g.clearRect(0, 0, width, TITLE_HEIGHT);
+            g.setFill(Color.BLACK);
+            g.setFont(TITLE_FONT);
+            g.setTextAlign(TextAlignment.CENTER);
+            g.setTextBaseline(VPos.CENTER);
+            g.fillText(title, width / 2, TITLE_HEIGHT / 2);
+        }
+        if ((dirty & GAUGE) != 0 && gauge != Gauge.NONE) {
+            double top = titleHeight();
+            g.clearRect(0, top, width, gaugeHeight());
+            if (gauge == Gauge.BAR) {
+                drawBar(g, top + 5);
+            } else {
+                drawCircle(g, top);
+            }
+        }
+        if ((dirty & TEXT) != 0 && hasText) {
+            double top = titleHeight() + gaugeHeight();
+            double middle = top + TEXT_HEIGHT / 2;
+            g.clearRect(0, top, width, TEXT_HEIGHT);
+            g.setFont(TEXT_FONT);
+            g.setTextBaseline(VPos.CENTER);
+            g.setTextAlign(TextAlignment.RIGHT);
+            g.setFill(selectedColor);
+            g.fillText(percentLabel, width / 2 - TEXT_GAP / 2, middle);
+            g.setTextAlign(TextAlignment.LEFT);
+            g.setFill(Color.BLACK);
+            g.fillText(fractionLabel, width / 2 + TEXT_GAP / 2, middle);
+        }
+        dirty = 0;
+    }
+
+    private void drawBar(GraphicsContext g, double top) {
+        g.setFill(normalColor);
+        g.fillRoundRect(0.5, top, FIXED_BAR_WIDTH - 1, BAR_HEIGHT, 5, 5);
+        g.setStroke(Color.DARKGRAY);
+        g.setLineWidth(1);
+        g.strokeRoundRect(0.5, top, FIXED_BAR_WIDTH - 1, BAR_HEIGHT, 5, 5);
+        if (shownBarPixels > 0) {
+            g.setFill(selectedColor);
+            g.fillRoundRect(0.5, top, Math.min(shownBarPixels, FIXED_BAR_WIDTH - 1), BAR_HEIGHT, 5, 5);
+        }
+    }
+
+    private void drawCircle(GraphicsContext g, double top) {
+        double center = CIRCLE_SIZE / 2;
+        double left = center - CIRCLE_RADIUS;
+        double diameter = CIRCLE_RADIUS * 2;
+        g.setLineWidth(CIRCLE_STROKE_WIDTH);
+        g.setStroke(normalColor);
+        g.strokeOval(left, top + left, diameter, diameter);
+        if (shownArcSteps != 0 && shownArcSteps != Long.MIN_VALUE) {
+            g.setStroke(selectedColor);
+            g.setLineCap(StrokeLineCap.ROUND);
+            g.strokeArc(left, top + left, diameter, diameter, 90, shownArcSteps * ARC_DEGREES_PER_PIXEL, ArcType.OPEN);
+        }
+        g.setFill(selectedColor);
+        g.setFont(CLOCK_FONT);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        g.fillText(clockLabel, center, top + center);
+    }
+}
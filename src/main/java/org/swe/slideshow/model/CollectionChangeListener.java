@@ -0,0 +1,5 @@
+package org.swe.slideshow.model;
+
+public interface CollectionChangeListener {
+    void onCollectionChanged(int totalCount, int addedCount, int removedCount);
+}
@@ -1,48 +1,428 @@
 package org.swe.slideshow.model;
 
+import javafx.application.Platform;
 import javafx.scene.image.Image;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 public class ConcreteAggregate {
+    private static final int DEFAULT_PREFETCH_AHEAD = 2;
+    private static final int DEFAULT_PREFETCH_BEHIND = 1;
+    private static final ImageCache IMAGE_CACHE = new ImageCache(ImageCache.defaultBudget());
+    private static final int VIEWPORT_STEP = 256;
+    private static final String EXTENSION_PROFILE = "extension";
+    private static final String CONTENT_PROFILE = "content";
+
     private String filetop;
     private String imageFormat;
     private final SlideCollection slideCollection;
+    private final SlideView slideView;
+    private final Map<String, IndexList> extensionIndex = new HashMap<>();
+    private boolean extensionIndexed = true;
+    private final ImagePrefetcher prefetcher = new ImagePrefetcher(this::decodeForViewport, IMAGE_CACHE,
+            imagePath -> !coversViewport(IMAGE_CACHE.peek(imagePath)));
+    private int prefetchAhead = DEFAULT_PREFETCH_AHEAD;
+    private int prefetchBehind = DEFAULT_PREFETCH_BEHIND;
+    private volatile int viewportWidth;
+    private volatile int viewportHeight;
+    private DirectoryScan activeScan;
+    private DirectoryWatcher watcher;
+    private ScanListener scanListener;
+    private boolean loaded;
+    private boolean directoryBacked;
+    private boolean filterByFormat;
+    private boolean contentDetection;
+    private ImageReadyListener imageReadyListener;
+    private String impressionEmotion;
+    private String impressionQuery;
+    private PlaybackOrder playbackOrder = PlaybackOrder.SCAN;
+    private long shuffleSeed = System.nanoTime();
+    private SlideOrder slideOrder;
+    private int slideOrderVersion;
+    private int orderChanges;
+    private SlideOrder keyedOrder;
+    private PlaybackOrder keyedOrderKind;
+    private int keyedOrderVersion;
+    private int keyedOrderSize;
+    private boolean keyedOrderPending;
+    private boolean impressionFiltered;
+    private AlbumPack pack;
     
     public Iterator getIterator() {
-        return new ImageIterator(slideCollection);
+        return new ImageIterator(slideView);
     }
     
     public ConcreteAggregate(String filetop, String imageFormat) {
+        this(filetop, imageFormat, true);
+    }
+
+    public ConcreteAggregate(String filetop, String imageFormat, boolean loadImmediately) {
         this.filetop = filetop;
         this.imageFormat = imageFormat;
         this.slideCollection = new SlideCollection();
-        loadImageFiles();
+        this.slideView = new SlideView(slideCollection);
+        if (loadImmediately) {
+            loadImageFiles();
+        }
     }
     
     private void loadImageFiles() {
-        slideCollection.clear();
-        if (filetop == null || filetop.isEmpty()) {
+        cancelScan();
+        stopWatching();
+        loaded = true;
+        directoryBacked = true;
+        filterByFormat = true;
+        clearItems();
+        Path rootPath = resolveRoot();
+        if (rootPath == null) {
             return;
         }
         
+        try {
+            ScanCatalog catalog = ScanCatalog.load(rootPath, catalogProfile());
+            List<Path> paths = new ParallelTreeWalker().walk(rootPath, imageFilter(), catalog);
+            catalog.save();
+            markDetected(paths);
+            persistDetectedFormats(rootPath);
+            for (Path path : paths) {
+                addItem(new AlbumItem(path.toAbsolutePath().toString()));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void addItem(AlbumItem item) {
+        int index = slideCollection.size();
+        slideCollection.add(item);
+        if (slideCollection.size() > index && extensionIndexed) {
+            extensionIndex.computeIfAbsent(indexKeyOf(item.getImagePath()), key -> new IndexList()).add(index);
+        }
+    }
+
+    private void clearItems() {
+        releasePack();
+        slideCollection.clear();
+        extensionIndex.clear();
+        extensionIndexed = true;
+        prefetcher.clear();
+        impressionEmotion = null;
+        impressionQuery = null;
+        applyFormatView();
+    }
+
+    private void rebuildExtensionIndex() {
+        extensionIndexed = false;
+        applyFormatView();
+    }
+
+    private void ensureExtensionIndex() {
+        if (extensionIndexed) {
+            return;
+        }
+        extensionIndex.clear();
+        for (int i = 0; i < slideCollection.size(); i++) {
+            extensionIndex.computeIfAbsent(indexKeyOf(slideCollection.getItem(i).getImagePath()),
+                    key -> new IndexList()).add(i);
+        }
+        extensionIndexed = true;
+    }
+
+    private void applyFormatView() {
+        String extension = formatExtension(imageFormat);
+        IndexList formatPositions = null;
+        if (filterByFormat && extension != null) {
+            ensureExtensionIndex();
+            formatPositions = extensionIndex.computeIfAbsent(normalizeKey(extension), key -> new IndexList());
+        }
+        IndexList impressionPositions = slideCollection.impressionMatches(impressionEmotion, impressionQuery);
+        impressionFiltered = impressionPositions != null;
+        if (formatPositions == null && impressionPositions == null) {
+            slideView.showAll();
+        } else if (impressionPositions == null) {
+            slideView.showOnly(formatPositions);
+        } else if (formatPositions == null) {
+            slideView.showOnly(impressionPositions);
+        } else {
+            slideView.showOnly(intersect(formatPositions, impressionPositions));
+        }
+    }
+
+    private static IndexList intersect(IndexList first, IndexList second) {
+        IndexList result = new IndexList();
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            int a = first.get(i);
+            int b = second.get(j);
+            if (a == b) {
+                result.add(a);
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public int setImpressionFilter(String emotion, String query) {
+        impressionEmotion = emotion;
+        impressionQuery = query;
+        applyFormatView();
+        return getImageCount();
+    }
+
+    public boolean refreshImpressionFilter() {
+        if (!impressionFiltered) {
+            return false;
+        }
+        applyFormatView();
+        return true;
+    }
+
+    public void clearImpressionFilter() {
+        setImpressionFilter(null, null);
+    }
+
+    private static String formatExtension(String imageFormat) {
+        if (imageFormat == null || imageFormat.isEmpty() || "*".equals(imageFormat)) {
+            return null;
+        }
+        return imageFormat.toLowerCase(Locale.ROOT).replace("*", "").replace(".", "");
+    }
+
+    private String indexKeyOf(String imagePath) {
+        if (contentDetection) {
+            String detected = ImageFormatSniffer.shared().cachedFormat(imagePath);
+            if (detected != null) {
+                return detected;
+            }
+        }
+        return normalizeKey(extensionOf(imagePath));
+    }
+
+    private String normalizeKey(String extension) {
+        if (contentDetection && "jpg".equals(extension)) {
+            return ImageFormatSniffer.JPEG;
+        }
+        return extension;
+    }
+
+    public void setContentDetection(boolean contentDetection) {
+        this.contentDetection = contentDetection;
+    }
+
+    public boolean isContentDetection() {
+        return contentDetection;
+    }
+
+    private Predicate<Path> imageFilter() {
+        if (contentDetection) {
+            ImageFormatSniffer sniffer = ImageFormatSniffer.shared();
+            return sniffer::isImage;
+        }
+        return this::isSupportedImage;
+    }
+
+    private String catalogProfile() {
+        return contentDetection ? CONTENT_PROFILE : EXTENSION_PROFILE;
+    }
+
+    private void markDetected(List<Path> paths) {
+        if (contentDetection) {
+            ImageFormatSniffer.shared().markSeen(paths);
+        }
+    }
+
+    private void persistDetectedFormats(Path rootPath) {
+        if (contentDetection) {
+            ImageFormatSniffer sniffer = ImageFormatSniffer.shared();
+            sniffer.prune(rootPath);
+            sniffer.save();
+        }
+    }
+
+    private static String extensionOf(String imagePath) {
+        String fileName = Paths.get(imagePath).getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private Path resolveRoot() {
+        if (filetop == null || filetop.isEmpty()) {
+            return null;
+        }
         Path rootPath = Paths.get(filetop);
         if (!Files.exists(rootPath) || !Files.isDirectory(rootPath)) {
+            return null;
+        }
+        return rootPath;
+    }
+
+    public void startScan(ScanListener listener) {
+        cancelScan();
+        stopWatching();
+        loaded = true;
+        directoryBacked = true;
+        filterByFormat = true;
+        scanListener = listener;
+        clearItems();
+        Path rootPath = resolveRoot();
+        if (rootPath == null) {
+            if (listener != null) {
+                listener.onScanCompleted(0);
+            }
             return;
         }
-        
-        try (Stream<Path> paths = Files.walk(rootPath)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(this::isSupportedImage)
-                    .filter(this::matchesSelectedFormat)
-                    .forEach(path -> slideCollection.add(new AlbumItem(path.toAbsolutePath().toString())));
-        } catch (Exception e) {
-            e.printStackTrace();
+
+        DirectoryScan scan = new DirectoryScan(rootPath,
+                imageFilter(),
+                catalogProfile(),
+                () -> persistDetectedFormats(rootPath),
+                this::markDetected,
+                batch -> {
+                    for (Path path : batch) {
+                        addItem(new AlbumItem(path.toAbsolutePath().toString()));
+                    }
+                    if (listener != null) {
+                        listener.onItemsFound(getImageCount());
+                    }
+                },
+                () -> {
+                    activeScan = null;
+                    if (listener != null) {
+                        listener.onScanCompleted(getImageCount());
+                    }
+                });
+        activeScan = scan;
+        scan.start();
+    }
+
+    public void cancelScan() {
+        if (activeScan != null) {
+            activeScan.cancel();
+            activeScan = null;
+        }
+    }
+
+    public boolean isScanning() {
+        return activeScan != null;
+    }
+
+    public void startWatching(CollectionChangeListener listener) throws IOException {
+        stopWatching();
+        Path rootPath = directoryBacked ? resolveRoot() : null;
+        if (rootPath == null) {
+            return;
+        }
+        DirectoryWatcher newWatcher = new DirectoryWatcher(rootPath, imageFilter(), batch -> {
+            int before = slideCollection.size();
+            int removed = applyChanges(batch);
+            if (listener != null) {
+                int added = slideCollection.size() - before + removed;
+                listener.onCollectionChanged(getImageCount(), added, removed);
+            }
+        });
+        watcher = newWatcher;
+        newWatcher.start();
+    }
+
+    public void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    public boolean isWatching() {
+        return watcher != null;
+    }
+
+    private int applyChanges(DirectoryWatcher.ChangeBatch batch) {
+        for (Path path : batch.modified()) {
+            IMAGE_CACHE.remove(path.toAbsolutePath().toString());
+            ThumbnailCache.shared().evict(path.toAbsolutePath().toString());
+        }
+
+        Set<String> removedPaths = new HashSet<>();
+        for (Path path : batch.removed()) {
+            removedPaths.add(path.toAbsolutePath().toString());
+        }
+        Set<Path> added = new LinkedHashSet<>(batch.added());
+        if (batch.fullListing() != null) {
+            Set<String> listed = new HashSet<>();
+            for (Path path : batch.fullListing()) {
+                listed.add(path.toAbsolutePath().toString());
+            }
+            for (int i = 0; i < slideCollection.size(); i++) {
+                String imagePath = slideCollection.getItem(i).getImagePath();
+                if (!listed.contains(imagePath)) {
+                    removedPaths.add(imagePath);
+                }
+            }
+            added.addAll(batch.fullListing());
+        }
+
+        int removed = 0;
+        if (!removedPaths.isEmpty()) {
+            removed = slideCollection.removeIf(item -> isUnder(item.getImagePath(), removedPaths));
+            for (String imagePath : removedPaths) {
+                IMAGE_CACHE.remove(imagePath);
+            }
+            prefetcher.clear();
+            if (removed > 0) {
+                rebuildExtensionIndex();
+            }
+        }
+
+        for (Path path : added) {
+            String imagePath = path.toAbsolutePath().toString();
+            if (slideCollection.indexOfPath(imagePath) < 0) {
+                addItem(new AlbumItem(imagePath));
+            }
+        }
+        return removed;
+    }
+
+    private static boolean isUnder(String imagePath, Set<String> removedPaths) {
+        for (Path current = Paths.get(imagePath); current != null; current = current.getParent()) {
+            if (removedPaths.contains(current.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isDirectoryBacked() {
+        return directoryBacked;
+    }
+
+    public boolean needsScan() {
+        return !loaded && resolveRoot() != null;
+    }
+
+    private void reload() {
+        if (scanListener != null) {
+            startScan(scanListener);
+        } else {
+            loadImageFiles();
         }
     }
 
@@ -55,79 +435,410 @@ public class ConcreteAggregate {
                             fileName.endsWith(".bmp");
     }
 
-    private boolean matchesSelectedFormat(Path path) {
-        if (imageFormat == null || imageFormat.isEmpty() || "*".equals(imageFormat)) {
-                         return true;
-                     }
-                     String fileName = path.getFileName().toString().toLowerCase();
-                     String format = imageFormat.toLowerCase().replace("*", "").replace(".", "");
-                     return fileName.endsWith("." + format);
-    }
-    
     public void setFiletop(String filetop) {
+        if (loaded && directoryBacked && isSameDirectory(this.filetop, filetop)) {
+            return;
+        }
         this.filetop = filetop;
-        loadImageFiles();
+        reload();
+    }
+
+    private static boolean isSameDirectory(String first, String second) {
+        if (first == null || second == null || first.isEmpty() || second.isEmpty()) {
+            return false;
+        }
+        return Paths.get(first).toAbsolutePath().normalize().equals(Paths.get(second).toAbsolutePath().normalize());
     }
     
     public void setImageFormat(String imageFormat) {
         this.imageFormat = imageFormat;
-        loadImageFiles();
+        if (!loaded) {
+            return;
+        }
+        filterByFormat = true;
+        applyFormatView();
     }
     
+    public void setPrefetchWindow(int ahead, int behind) {
+        this.prefetchAhead = Math.max(0, ahead);
+        this.prefetchBehind = Math.max(0, behind);
+    }
+
+    public void setViewportSize(double width, double height) {
+        viewportWidth = roundUpToStep(width);
+        viewportHeight = roundUpToStep(height);
+    }
+
+    public boolean coversViewport(Image image) {
+        if (image == null || image.isError()) {
+            return false;
+        }
+        if (image.getRequestedWidth() <= 0 && image.getRequestedHeight() <= 0) {
+            return true;
+        }
+        return image.getRequestedWidth() >= viewportWidth && image.getRequestedHeight() >= viewportHeight;
+    }
+
+    private static int roundUpToStep(double size) {
+        if (size <= 0) {
+            return 0;
+        }
+        return (int) Math.ceil(size / VIEWPORT_STEP) * VIEWPORT_STEP;
+    }
+
+    public void setImageReadyListener(ImageReadyListener imageReadyListener) {
+        this.imageReadyListener = imageReadyListener;
+    }
+
+    public Image loadImage(AlbumItem item) {
+        if (item == null || item.getImagePath() == null) {
+            return null;
+        }
+        String imagePath = item.getImagePath();
+        Image cached = IMAGE_CACHE.get(imagePath, this::coversViewport);
+        if (cached != null) {
+            return cached;
+        }
+        Image preview = loadProgressively(item);
+        if (preview != null) {
+            return preview;
+        }
+        ThumbnailCache.beginForegroundDecode();
+        try {
+            Image image = prefetcher.take(imagePath);
+            if (!coversViewport(image)) {
+                image = decodeForViewport(imagePath);
+                IMAGE_CACHE.put(imagePath, image);
+            }
+            return image;
+        } finally {
+            ThumbnailCache.endForegroundDecode();
+        }
+    }
+
+    private Image loadProgressively(AlbumItem item) {
+        ImageReadyListener listener = imageReadyListener;
+        if (listener == null) {
+            return null;
+        }
+        String imagePath = item.getImagePath();
+        Image preview = IMAGE_CACHE.peek(imagePath);
+        if (preview == null) {
+            preview = loadPreview(imagePath);
+        }
+        if (preview == null) {
+            return null;
+        }
+        ThumbnailCache.beginForegroundDecode();
+        prefetcher.whenReady(imagePath, image -> Platform.runLater(() -> listener.onImageReady(item, image)))
+                .whenComplete((image, error) -> ThumbnailCache.endForegroundDecode());
+        return preview;
+    }
+
+    private static Image loadPreview(String imagePath) {
+        byte[] exifThumbnail = ExifThumbnailReader.read(Paths.get(imagePath));
+        if (exifThumbnail != null) {
+            Image image = new Image(new ByteArrayInputStream(exifThumbnail));
+            if (!image.isError()) {
+                return image;
+            }
+        }
+        return ThumbnailCache.shared().loadStored(imagePath);
+    }
+
+    public Image loadFullResolutionImage(AlbumItem item) {
+        if (item == null || item.getImagePath() == null) {
+            return null;
+        }
+        Image cached = IMAGE_CACHE.peek(item.getImagePath());
+        if (cached != null && cached.getRequestedWidth() <= 0 && cached.getRequestedHeight() <= 0) {
+            return cached;
+        }
+        ThumbnailCache.beginForegroundDecode();
+        try {
+            Image image = decodeImage(item.getImagePath(), 0, 0);
+            IMAGE_CACHE.put(item.getImagePath(), image);
+            return image;
+        } finally {
+            ThumbnailCache.endForegroundDecode();
+        }
+    }
+
+    public ImageCache getImageCache() {
+        return IMAGE_CACHE;
+    }
+
     public int getImageCount() {
-        return slideCollection.size();
+        return slideView.size();
+    }
+
+    public int getVersion() {
+        return playbackVersion();
+    }
+
+    public void setPlaybackOrder(PlaybackOrder playbackOrder) {
+        setPlaybackOrder(playbackOrder, System.nanoTime());
+    }
+
+    public void setPlaybackOrder(PlaybackOrder playbackOrder, long seed) {
+        this.playbackOrder = playbackOrder != null ? playbackOrder : PlaybackOrder.SCAN;
+        this.shuffleSeed = seed;
+        slideOrder = null;
+        orderChanges++;
+        prefetcher.clear();
+    }
+
+    public PlaybackOrder getPlaybackOrder() {
+        return playbackOrder;
+    }
+
+    private int playbackVersion() {
+        return slideView.version() + orderChanges;
+    }
+
+    private SlideOrder slideOrder() {
+        int version = slideView.version();
+        if (slideOrder == null || slideOrderVersion != version) {
+            slideOrder = buildSlideOrder();
+            slideOrderVersion = version;
+        }
+        return slideOrder;
+    }
+
+    private SlideOrder buildSlideOrder() {
+        int size = slideView.size();
+        switch (playbackOrder) {
+            case REVERSE:
+                return SlideOrder.reverse(size);
+            case SHUFFLE:
+                return new FeistelPermutation(size, shuffleSeed);
+            case NAME:
+            case SIZE:
+            case MODIFIED:
+                return keyedOrder(size);
+            default:
+                return SlideOrder.identity();
+        }
+    }
+
+    private SlideOrder keyedOrder(int size) {
+        int version = slideView.version();
+        PlaybackOrder kind = playbackOrder;
+        if (keyedOrder != null && keyedOrderKind == kind && keyedOrderVersion == version) {
+            return keyedOrder;
+        }
+        if (!keyedOrderPending) {
+            keyedOrderPending = true;
+            String[] imagePaths = new String[size];
+            for (int i = 0; i < size; i++) {
+                imagePaths[i] = slideView.getItem(i).getImagePath();
+            }
+            Thread thread = new Thread(() -> {
+                SlideOrder order = sortedOrder(imagePaths, kind);
+                Platform.runLater(() -> installKeyedOrder(order, kind, version, imagePaths.length));
+            }, "slide-order");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        if (keyedOrder != null && keyedOrderKind == kind && keyedOrderSize == size) {
+            return keyedOrder;
+        }
+        return SlideOrder.identity();
+    }
+
+    private static SlideOrder sortedOrder(String[] imagePaths, PlaybackOrder kind) {
+        if (kind == PlaybackOrder.NAME) {
+            String[] names = new String[imagePaths.length];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = Paths.get(imagePaths[i]).getFileName().toString();
+            }
+            return SortedOrder.byStringKey(names);
+        }
+        long[] keys = new long[imagePaths.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = fileKey(imagePaths[i], kind);
+        }
+        return SortedOrder.byLongKey(keys);
+    }
+
+    private void installKeyedOrder(SlideOrder order, PlaybackOrder kind, int version, int size) {
+        keyedOrderPending = false;
+        keyedOrder = order;
+        keyedOrderKind = kind;
+        keyedOrderVersion = version;
+        keyedOrderSize = size;
+        if (playbackOrder == PlaybackOrder.NAME || playbackOrder == PlaybackOrder.SIZE
+                || playbackOrder == PlaybackOrder.MODIFIED) {
+            slideOrder = null;
+            orderChanges++;
+        }
+    }
+
+    private static long fileKey(String imagePath, PlaybackOrder order) {
+        try {
+            ImageBytes.Attributes attributes = ImageBytes.readAttributes(Paths.get(imagePath));
+            return order == PlaybackOrder.SIZE ? attributes.size() : attributes.lastModified();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public AlbumItem[] getItemsInPlaybackOrder() {
+        SlideOrder order = slideOrder();
+        int size = slideView.size();
+        AlbumItem[] result = new AlbumItem[size];
+        for (int step = 0; step < size; step++) {
+            result[step] = slideView.getItem(order.positionAt(step));
+        }
+        return result;
     }
 
     public void loadFromAlbumItems(AlbumItem[] items) {
-        slideCollection.clear();
+        cancelScan();
+        stopWatching();
+        scanListener = null;
+        loaded = true;
+        directoryBacked = false;
+        filterByFormat = false;
+        clearItems();
         if (items != null) {
             for (AlbumItem item : items) {
                 if (item != null) {
-                    slideCollection.add(item);
+                    addItem(item);
                 }
             }
         }
     }
 
+    public void loadFromAlbum(Path albumDirectory) throws IOException {
+        IndexedAlbum album = AlbumStore.openIndexed(albumDirectory);
+        if (album == null) {
+            loadFromAlbumItems(AlbumStore.loadAlbum(albumDirectory));
+            return;
+        }
+        cancelScan();
+        stopWatching();
+        scanListener = null;
+        loaded = true;
+        directoryBacked = false;
+        filterByFormat = false;
+        clearItems();
+        slideCollection.load(album);
+        extensionIndexed = false;
+        applyFormatView();
+    }
+
+    public void loadFromPack(AlbumPack pack) {
+        loadFromAlbumItems(pack.items());
+        this.pack = pack;
+    }
+
+    public Path getPackFile() {
+        return pack != null ? pack.getPackFile() : null;
+    }
+
+    public void releasePack() {
+        if (pack != null) {
+            pack.release();
+            pack = null;
+        }
+    }
+
     public AlbumItem[] getAllItems() {
-        int size = slideCollection.size();
+        int size = slideView.size();
         AlbumItem[] result = new AlbumItem[size];
         for (int i = 0; i < size; i++) {
-            result[i] = slideCollection.getItem(i);
+            result[i] = slideView.getItem(i);
         }
         return result;
     }
     
+    private Image decodeForViewport(String imagePath) {
+        return decodeImage(imagePath, viewportWidth, viewportHeight);
+    }
+
+    private static Image decodeImage(String imagePath, int width, int height) {
+        Path path = Paths.get(imagePath);
+        try (InputStream stream = ImageBytes.openStream(path)) {
+            if (width > 0 && height > 0) {
+                return new Image(stream, width, height, true, true);
+            }
+            return new Image(stream);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
     private class ImageIterator implements Iterator {
-        private final SlideCollection collection;
+        private final SlideView collection;
         private int current = -1;
+        private AlbumItem currentItem;
+        private int version;
 
-        private ImageIterator(SlideCollection collection) {
+        private ImageIterator(SlideView collection) {
             this.collection = collection;
+            this.version = playbackVersion();
+        }
+
+        private AlbumItem itemAt(int step) {
+            if (step < 0 || step >= collection.size()) {
+                return null;
+            }
+            return collection.getItem(slideOrder().positionAt(step));
         }
         
         private Image getImage(int index) {
-            AlbumItem item = collection.getItem(index);
-            if (item == null || item.getImagePath() == null) {
-                return null;
+            currentItem = itemAt(index);
+            return loadImage(currentItem);
+        }
+
+        private void syncPosition() {
+            if (version == playbackVersion()) {
+                return;
             }
-            
-            Path path = Paths.get(item.getImagePath());
-            try (InputStream stream = Files.newInputStream(path)) {
-                return new Image(stream);
-            } catch (IOException e) {
-                e.printStackTrace();
-                return null;
+            version = playbackVersion();
+            int index = currentItem != null ? collection.indexOf(currentItem) : -1;
+            if (index >= 0) {
+                current = slideOrder().stepOf(index);
+            } else {
+                current = Math.min(current, collection.size()) - 1;
+                currentItem = itemAt(current);
+            }
+        }
+
+        private void prefetchAround(int direction) {
+            int size = collection.size();
+            List<String> window = new ArrayList<>();
+            addToWindow(window, current);
+            int ahead = Math.min(prefetchAhead, size - 1);
+            int behind = Math.min(prefetchBehind, size - 1 - ahead);
+            for (int step = 1; step <= ahead; step++) {
+                addToWindow(window, current + direction * step);
+            }
+            for (int step = 1; step <= behind; step++) {
+                addToWindow(window, current - direction * step);
+            }
+            prefetcher.retainOnly(window);
+        }
+
+        private void addToWindow(List<String> window, int index) {
+            int size = collection.size();
+            AlbumItem item = itemAt(Math.floorMod(index, size));
+            if (item != null && !window.contains(item.getImagePath())) {
+                window.add(item.getImagePath());
             }
         }
         
         @Override
         public boolean hasNext(int x) {
+            syncPosition();
             return collection.size() > 0 && current + x < collection.size();
         }
         
         @Override
         public Object next() {
+            syncPosition();
             if (collection.size() == 0) {
                 return null;
             }
@@ -136,11 +847,14 @@ public class ConcreteAggregate {
             } else {
                 current = 0;
             }
-            return getImage(current);
+            Image image = getImage(current);
+            prefetchAround(1);
+            return image;
         }
         
         @Override
         public Object preview() {
+            syncPosition();
             if (collection.size() == 0) {
                 return null;
             }
@@ -149,11 +863,49 @@ public class ConcreteAggregate {
             } else {
                 current = collection.size() - 1;
             }
-            return getImage(current);
+            Image image = getImage(current);
+            prefetchAround(-1);
+            return image;
+        }
+        
+        @Override
+        public void prepareNext() {
+            syncPosition();
+            if (collection.size() == 0) {
+                return;
+            }
+            AlbumItem item = itemAt(hasNext(1) ? current + 1 : 0);
+            if (item != null) {
+                prefetcher.prepare(item.getImagePath());
+            }
+        }
+
+        @Override
+        public Object seek(int index) {
+            syncPosition();
+            int size = collection.size();
+            if (size == 0) {
+                return null;
+            }
+            current = Math.max(1, Math.min(index, size)) - 1;
+            Image image = getImage(current);
+            prefetchAround(1);
+            return image;
+        }
+
+        @Override
+        public Object seekToItem(String itemId) {
+            syncPosition();
+            int position = collection.indexOfPath(itemId);
+            if (position < 0) {
+                return null;
+            }
+            return seek(slideOrder().stepOf(position) + 1);
         }
         
         @Override
         public int getCurrentIndex() {
+            syncPosition();
             if (current < 0) return 1;
             if (current >= collection.size()) return collection.size();
             return current + 1;
@@ -167,10 +919,8 @@ public class ConcreteAggregate {
 
         @Override
         public AlbumItem getCurrentItem() {
-            if (current < 0 || current >= collection.size()) {
-                return null;
-            }
-            return collection.getItem(current);
+            syncPosition();
+            return itemAt(current);
         }
     }
 }
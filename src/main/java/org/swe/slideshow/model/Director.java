@@ -3,6 +3,7 @@ package org.swe.slideshow.model;
 public class Director {
     
     public Indicator constructSlideShowIndicator(Builder builder, int totalSlides) {
+        builder.reset();
         builder.addTitle("Прогресс слайд-шоу");
         builder.setView(totalSlides, 'g', 'b');
         builder.lineBounds(1, totalSlides);
@@ -12,6 +13,7 @@ public class Director {
     }
     
     public Indicator constructTimeIndicator(Builder builder, float startTime, float endTime, float currentTime) {
+        builder.reset();
         builder.addTitle("Таймер");
         builder.setView(10, 'g', 'p');
         builder.lineBounds(startTime, endTime);
@@ -24,6 +26,7 @@ public class Director {
     }
     
     public Indicator constructCustomIndicator(Builder builder, String title, float start, float stop, float measure, char norm, char select) {
+        builder.reset();
         builder.setView(10, norm, select);
         builder.lineBounds(start, stop);
         builder.linePaint(measure);
@@ -0,0 +1,105 @@
+package org.swe.slideshow.model;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+class DirectoryScan implements Runnable {
+    private static final int BATCH_SIZE = 500;
+    private static final long BATCH_INTERVAL_NANOS = 100_000_000L;
+
+    private final Path root;
+    private final Predicate<Path> filter;
+    private final Consumer<List<Path>> onBatch;
+    private final Runnable onComplete;
+    private final String catalogProfile;
+    private final Runnable persist;
+    private final Consumer<List<Path>> onFound;
+    private final ParallelTreeWalker walker = new ParallelTreeWalker();
+    private volatile boolean cancelled;
+    private List<Path> batch = new ArrayList<>();
+    private boolean firstPublished;
+    private long lastPublish;
+
+    DirectoryScan(Path root,
+                  Predicate<Path> filter,
+                  String catalogProfile,
+                  Runnable persist,
+                  Consumer<List<Path>> onFound,
+                  Consumer<List<Path>> onBatch,
+                  Runnable onComplete) {
+        this.root = root;
+        this.filter = filter;
+        this.catalogProfile = catalogProfile;
+        this.persist = persist;
+        this.onFound = onFound;
+        this.onBatch = onBatch;
+        this.onComplete = onComplete;
+    }
+
+    void start() {
+        Thread thread = new Thread(this, "directory-scan");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public void run() {
+        lastPublish = System.nanoTime();
+        ScanCatalog catalog = catalogProfile != null ? ScanCatalog.load(root, catalogProfile) : null;
+        try {
+            walker.walk(root, filter, this::collect, () -> cancelled, catalog);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (!cancelled) {
+            publish();
+            if (catalog != null) {
+                catalog.save();
+            }
+            if (persist != null) {
+                persist.run();
+            }
+            Platform.runLater(() -> {
+                if (!cancelled) {
+                    onComplete.run();
+                }
+            });
+        }
+    }
+
+    private void collect(List<Path> files) {
+        if (onFound != null) {
+            onFound.accept(files);
+        }
+        batch.addAll(files);
+        long now = System.nanoTime();
+        if (!firstPublished || batch.size() >= BATCH_SIZE || now - lastPublish >= BATCH_INTERVAL_NANOS) {
+            publish();
+            firstPublished = true;
+            lastPublish = now;
+        }
+    }
+
+    private void publish() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Path> published = batch;
+        batch = new ArrayList<>();
+        Platform.runLater(() -> {
+            if (!cancelled) {
+                onBatch.accept(published);
+            }
+        });
+    }
+}
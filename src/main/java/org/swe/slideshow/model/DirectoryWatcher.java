@@ -0,0 +1,169 @@
+package org.swe.slideshow.model;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+class DirectoryWatcher implements Runnable {
+    private static final long QUIET_PERIOD_MS = 300;
+    private static final long MAX_BURST_MS = 2000;
+
+    record ChangeBatch(Set<Path> added, Set<Path> removed, Set<Path> modified, List<Path> fullListing) {}
+
+    private final Path root;
+    private final Predicate<Path> filter;
+    private final Consumer<ChangeBatch> onChanges;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private volatile boolean closed;
+
+    DirectoryWatcher(Path root, Predicate<Path> filter, Consumer<ChangeBatch> onChanges) throws IOException {
+        this.root = root;
+        this.filter = filter;
+        this.onChanges = onChanges;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    void start() {
+        Thread thread = new Thread(this, "directory-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            registerTree(root, null);
+            while (!closed) {
+                WatchKey key = watchService.take();
+                PendingChanges pending = new PendingChanges();
+                long burstStart = System.currentTimeMillis();
+                drain(key, pending);
+                while (System.currentTimeMillis() - burstStart < MAX_BURST_MS) {
+                    WatchKey next = watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    drain(next, pending);
+                }
+                deliver(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void drain(WatchKey key, PendingChanges pending) throws IOException {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                pending.overflow = true;
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE) {
+                pending.removed.remove(child);
+                if (Files.isDirectory(child)) {
+                    registerTree(child, pending.added);
+                } else if (filter.test(child)) {
+                    pending.added.add(child);
+                }
+            } else if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                pending.added.remove(child);
+                pending.modified.remove(child);
+                pending.removed.add(child);
+            } else if (kind == StandardWatchEventKinds.ENTRY_MODIFY && Files.isRegularFile(child) && filter.test(child)) {
+                pending.modified.add(child);
+                pending.added.add(child);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void registerTree(Path start, Set<Path> discoveredFiles) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                try {
+                    WatchKey key = dir.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+                    directories.put(key, dir);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (discoveredFiles != null && attrs.isRegularFile() && filter.test(file)) {
+                    discoveredFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void deliver(PendingChanges pending) throws IOException {
+        List<Path> fullListing = null;
+        if (pending.overflow) {
+            fullListing = new ParallelTreeWalker().walk(root, filter);
+        } else if (pending.added.isEmpty() && pending.removed.isEmpty() && pending.modified.isEmpty()) {
+            return;
+        }
+        ChangeBatch batch = new ChangeBatch(pending.added, pending.removed, pending.modified, fullListing);
+        Platform.runLater(() -> {
+            if (!closed) {
+                onChanges.accept(batch);
+            }
+        });
+    }
+
+    private static final class PendingChanges {
+        private final Set<Path> added = new LinkedHashSet<>();
+        private final Set<Path> removed = new LinkedHashSet<>();
+        private final Set<Path> modified = new LinkedHashSet<>();
+        private boolean overflow;
+    }
+}
@@ -0,0 +1,134 @@
+package org.swe.slideshow.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+final class ExifThumbnailReader {
+    private static final int SOI = 0xD8;
+    private static final int APP1 = 0xE1;
+    private static final int SOS = 0xDA;
+    private static final int EOI = 0xD9;
+    private static final int TAG_THUMBNAIL_OFFSET = 0x0201;
+    private static final int TAG_THUMBNAIL_LENGTH = 0x0202;
+    private static final int HEADER_BUFFER_SIZE = 8 * 1024;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    private ExifThumbnailReader() {
+    }
+
+    static byte[] read(Path path) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), HEADER_BUFFER_SIZE))) {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != SOI) {
+                return null;
+            }
+            while (true) {
+                int marker = nextMarker(in);
+                if (marker == SOS || marker == EOI) {
+                    return null;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return null;
+                }
+                if (marker != APP1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                byte[] segment = in.readNBytes(length);
+                byte[] thumbnail = extractThumbnail(segment);
+                if (thumbnail != null) {
+                    return thumbnail;
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static int nextMarker(DataInputStream in) throws IOException {
+        int value = in.readUnsignedByte();
+        while (value != 0xFF) {
+            value = in.readUnsignedByte();
+        }
+        while (value == 0xFF) {
+            value = in.readUnsignedByte();
+        }
+        return value;
+    }
+
+    private static byte[] extractThumbnail(byte[] segment) {
+        if (segment.length < EXIF_HEADER.length + 8
+                || !Arrays.equals(segment, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+            return null;
+        }
+        int tiff = EXIF_HEADER.length;
+        boolean littleEndian;
+        if (segment[tiff] == 'I' && segment[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (segment[tiff] == 'M' && segment[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return null;
+        }
+        if (readShort(segment, tiff + 2, littleEndian) != 42) {
+            return null;
+        }
+
+        long firstIfd = readInt(segment, tiff + 4, littleEndian);
+        int firstIfdStart = tiff + (int) firstIfd;
+        if (firstIfd <= 0 || firstIfd >= segment.length || firstIfdStart + 2 > segment.length) {
+            return null;
+        }
+        int entryCount = readShort(segment, firstIfdStart, littleEndian);
+        int nextIfdPosition = firstIfdStart + 2 + entryCount * 12;
+        if (nextIfdPosition + 4 > segment.length) {
+            return null;
+        }
+        long secondIfd = readInt(segment, nextIfdPosition, littleEndian);
+        int secondIfdStart = tiff + (int) secondIfd;
+        if (secondIfd <= 0 || secondIfd >= segment.length || secondIfdStart + 2 > segment.length) {
+            return null;
+        }
+
+        long offset = -1;
+        long length = -1;
+        int count = readShort(segment, secondIfdStart, littleEndian);
+        for (int i = 0; i < count; i++) {
+            int entry = secondIfdStart + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                return null;
+            }
+            int tag = readShort(segment, entry, littleEndian);
+            if (tag == TAG_THUMBNAIL_OFFSET) {
+                offset = readInt(segment, entry + 8, littleEndian);
+            } else if (tag == TAG_THUMBNAIL_LENGTH) {
+                length = readInt(segment, entry + 8, littleEndian);
+            }
+        }
+        if (offset <= 0 || length <= 0 || tiff + offset + length > segment.length) {
+            return null;
+        }
+        int start = tiff + (int) offset;
+        return Arrays.copyOfRange(segment, start, start + (int) length);
+    }
+
+    private static int readShort(byte[] data, int position, boolean littleEndian) {
+        int first = data[position] & 0xFF;
+        int second = data[position + 1] & 0xFF;
+        return littleEndian ? (second << 8) | first : (first << 8) | second;
+    }
+
+    private static long readInt(byte[] data, int position, boolean littleEndian) {
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int shift = littleEndian ? i * 8 : (3 - i) * 8;
+            value |= (long) (data[position + i] & 0xFF) << shift;
+        }
+        return value;
+    }
+}
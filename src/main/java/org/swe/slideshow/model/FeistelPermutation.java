@@ -0,0 +1,71 @@
+package org.swe.slideshow.model;
+
+class FeistelPermutation implements SlideOrder {
+    private static final int ROUNDS = 4;
+
+    private final int size;
+    private final long seed;
+    private final int halfBits;
+    private final long halfMask;
+
+    FeistelPermutation(int size, long seed) {
+        this.size = size;
+        this.seed = seed;
+        int bits = Math.max(2, 64 - Long.numberOfLeadingZeros(Math.max(1, size - 1)));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+    }
+
+    @Override
+    public int positionAt(int step) {
+        if (step < 0 || step >= size) {
+            return -1;
+        }
+        long value = step;
+        do {
+            value = encrypt(value);
+        } while (value >= size);
+        return (int) value;
+    }
+
+    @Override
+    public int stepOf(int position) {
+        if (position < 0 || position >= size) {
+            return -1;
+        }
+        long value = position;
+        do {
+            value = decrypt(value);
+        } while (value >= size);
+        return (int) value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ roundFunction(right, round);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            long previous = right ^ roundFunction(left, round);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long roundFunction(long half, int round) {
+        long mixed = half * 0x9E3779B97F4A7C15L + seed + round * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return (mixed ^ (mixed >>> 31)) & halfMask;
+    }
+}
@@ -0,0 +1,179 @@
+package org.swe.slideshow.model;
+
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.InvalidMarkException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+public final class ImageBytes {
+    private static final long MIN_MAPPED_SIZE = 64L * 1024;
+    private static final long MAX_MAPPED_SIZE = 256L * 1024 * 1024;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    public record Attributes(long size, long lastModified) {
+    }
+
+    private ImageBytes() {
+    }
+
+    public static Attributes readAttributes(Path path) throws IOException {
+        Attributes packed = AlbumPack.attributes(path);
+        if (packed != null) {
+            return packed;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new Attributes(attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    public static InputStream openStream(Path path) throws IOException {
+        ByteBuffer packed = AlbumPack.slice(path);
+        if (packed != null) {
+            return new ByteBufferInputStream(packed);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (!isMappable(size)) {
+                return new BufferedInputStream(Channels.newInputStream(channel), STREAM_BUFFER_SIZE);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            channel.close();
+            return new ByteBufferInputStream(buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static ImageInputStream openImageInputStream(Path path) throws IOException {
+        ByteBuffer packed = AlbumPack.slice(path);
+        if (packed != null) {
+            return new ByteBufferImageInputStream(packed);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (isMappable(size)) {
+                return new ByteBufferImageInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+        }
+        return new FileImageInputStream(path.toFile());
+    }
+
+    private static boolean isMappable(long size) {
+        return size >= MIN_MAPPED_SIZE && size <= MAX_MAPPED_SIZE;
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long count) {
+            int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            buffer.mark();
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            try {
+                buffer.reset();
+            } catch (InvalidMarkException e) {
+                throw new IOException("Resetting to invalid mark", e);
+            }
+        }
+    }
+
+    private static final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+        private final ByteBuffer buffer;
+
+        private ByteBufferImageInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkClosed();
+            bitOffset = 0;
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            streamPos++;
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            checkClosed();
+            bitOffset = 0;
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            streamPos += count;
+            return count;
+        }
+
+        @Override
+        public long length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public void seek(long position) throws IOException {
+            super.seek(position);
+            buffer.position((int) Math.min(position, buffer.limit()));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.swe.slideshow.model;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class ImageCache {
+    private static final long MIN_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final long MAX_BUDGET_BYTES = 1024L * 1024 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final long budgetBytes;
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hitCount;
+    private long missCount;
+
+    public ImageCache(long budgetBytes) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+    }
+
+    public static long defaultBudget() {
+        long quarterOfHeap = Runtime.getRuntime().maxMemory() / 4;
+        return Math.max(MIN_BUDGET_BYTES, Math.min(MAX_BUDGET_BYTES, quarterOfHeap));
+    }
+
+    public static long sizeOf(Image image) {
+        if (image == null) {
+            return 0;
+        }
+        return (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    public synchronized Image get(String imagePath) {
+        return get(imagePath, image -> true);
+    }
+
+    public synchronized Image get(String imagePath, Predicate<Image> usable) {
+        Image image = imagePath != null ? images.get(imagePath) : null;
+        if (image != null && usable.test(image)) {
+            hitCount++;
+            return image;
+        }
+        missCount++;
+        return null;
+    }
+
+    public synchronized Image peek(String imagePath) {
+        return imagePath != null ? images.get(imagePath) : null;
+    }
+
+    public synchronized boolean contains(String imagePath) {
+        return imagePath != null && images.containsKey(imagePath);
+    }
+
+    public synchronized void put(String imagePath, Image image) {
+        if (imagePath == null || image == null || image.isError()) {
+            return;
+        }
+        long size = sizeOf(image);
+        if (size > budgetBytes) {
+            return;
+        }
+        Image previous = images.put(imagePath, image);
+        usedBytes += size - sizeOf(previous);
+        evictToBudget();
+    }
+
+    public synchronized void remove(String imagePath) {
+        Image removed = imagePath != null ? images.remove(imagePath) : null;
+        usedBytes -= sizeOf(removed);
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<String, Image>> eldest = images.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            usedBytes -= sizeOf(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+}
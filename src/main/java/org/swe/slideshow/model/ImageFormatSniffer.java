@@ -0,0 +1,183 @@
+package org.swe.slideshow.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ImageFormatSniffer {
+    public static final String PNG = "png";
+    public static final String JPEG = "jpeg";
+    public static final String GIF = "gif";
+    public static final String BMP = "bmp";
+
+    private static final int MAGIC = 0x53534E46;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 18;
+    private static final int BMP_FILE_HEADER_LENGTH = 14;
+    private static final String NOT_AN_IMAGE = "";
+    private static final Path DEFAULT_STORAGE = Paths.get(System.getProperty("user.home"), ".slideshow-catalog", "formats.bin");
+
+    private record Entry(long size, long modifiedTime, String format) {}
+
+    private static final class Holder {
+        private static final ImageFormatSniffer SHARED = new ImageFormatSniffer(DEFAULT_STORAGE);
+    }
+
+    private final Path storageFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirty;
+
+    public ImageFormatSniffer(Path storageFile) {
+        this.storageFile = storageFile;
+        load();
+    }
+
+    public static ImageFormatSniffer shared() {
+        return Holder.SHARED;
+    }
+
+    public boolean isImage(Path path) {
+        return detect(path) != null;
+    }
+
+    public String detect(Path path) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+        String key = path.toAbsolutePath().toString();
+        seen.add(key);
+        long size = attributes.size();
+        long modifiedTime = attributes.lastModifiedTime().toMillis();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.size() == size && cached.modifiedTime() == modifiedTime) {
+            return cached.format().isEmpty() ? null : cached.format();
+        }
+
+        String format = readFormat(path);
+        entries.put(key, new Entry(size, modifiedTime, format != null ? format : NOT_AN_IMAGE));
+        dirty = true;
+        return format;
+    }
+
+    public String cachedFormat(String imagePath) {
+        Entry cached = imagePath != null ? entries.get(imagePath) : null;
+        return cached != null && !cached.format().isEmpty() ? cached.format() : null;
+    }
+
+    public void markSeen(Collection<Path> paths) {
+        for (Path path : paths) {
+            seen.add(path.toAbsolutePath().toString());
+        }
+    }
+
+    public void prune(Path root) {
+        String prefix = root.toAbsolutePath() + root.getFileSystem().getSeparator();
+        if (entries.keySet().removeIf(key -> key.startsWith(prefix) && !seen.contains(key))) {
+            dirty = true;
+        }
+        seen.removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static String readFormat(Path path) {
+        byte[] header = new byte[HEADER_LENGTH];
+        int length;
+        try (InputStream stream = Files.newInputStream(path)) {
+            length = stream.readNBytes(header, 0, HEADER_LENGTH);
+        } catch (IOException e) {
+            return null;
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return PNG;
+        }
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return GIF;
+        }
+        if (length >= HEADER_LENGTH && header[0] == 'B' && header[1] == 'M') {
+            long dataOffset = littleEndianInt(header, 10);
+            long dibHeaderLength = littleEndianInt(header, 14);
+            if (isDibHeaderLength(dibHeaderLength) && dataOffset >= BMP_FILE_HEADER_LENGTH + dibHeaderLength) {
+                return BMP;
+            }
+        }
+        return null;
+    }
+
+    private static long littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFFL)
+                | (bytes[offset + 1] & 0xFFL) << 8
+                | (bytes[offset + 2] & 0xFFL) << 16
+                | (bytes[offset + 3] & 0xFFL) << 24;
+    }
+
+    private static boolean isDibHeaderLength(long length) {
+        return length == 12 || length == 40 || length == 52 || length == 56
+                || length == 64 || length == 108 || length == 124;
+    }
+
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Files.createDirectories(storageFile.getParent());
+            Path tempFile = storageFile.resolveSibling(storageFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().size());
+                    out.writeLong(entry.getValue().modifiedTime());
+                    out.writeUTF(entry.getValue().format());
+                }
+            }
+            Files.move(tempFile, storageFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(storageFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storageFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long modifiedTime = in.readLong();
+                String format = in.readUTF();
+                entries.put(key, new Entry(size, modifiedTime, format));
+            }
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.swe.slideshow.model;
+
+import javafx.scene.image.Image;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+class ImagePrefetcher {
+    private static final int WORKER_COUNT = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(WORKER_COUNT, runnable -> {
+        Thread thread = new Thread(runnable, "slide-prefetch-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private final Function<String, Image> decoder;
+    private final ImageCache cache;
+    private final Predicate<String> needsDecode;
+    private final Map<String, CompletableFuture<Image>> pending = new HashMap<>();
+
+    ImagePrefetcher(Function<String, Image> decoder, ImageCache cache, Predicate<String> needsDecode) {
+        this.decoder = decoder;
+        this.cache = cache;
+        this.needsDecode = needsDecode;
+    }
+
+    Image take(String imagePath) {
+        CompletableFuture<Image> future = pending.remove(imagePath);
+        if (future == null || future.isCancelled()) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    CompletableFuture<Image> whenReady(String imagePath, Consumer<Image> onReady) {
+        CompletableFuture<Image> future = pending.get(imagePath);
+        if (future == null || future.isCancelled()) {
+            future = submit(imagePath);
+        }
+        future.thenAccept(image -> {
+            if (image != null) {
+                onReady.accept(image);
+            }
+        });
+        return future;
+    }
+
+    void prepare(String imagePath) {
+        CompletableFuture<Image> future = pending.get(imagePath);
+        if ((future == null || future.isCancelled()) && needsDecode.test(imagePath)) {
+            submit(imagePath);
+        }
+    }
+
+    void retainOnly(List<String> imagePaths) {
+        Iterator<Map.Entry<String, CompletableFuture<Image>>> entries = pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, CompletableFuture<Image>> entry = entries.next();
+            if (entry.getValue().isDone()) {
+                entries.remove();
+            } else if (!imagePaths.contains(entry.getKey())) {
+                entry.getValue().cancel(false);
+                entries.remove();
+            }
+        }
+        for (String imagePath : imagePaths) {
+            if (imagePath != null && !pending.containsKey(imagePath) && needsDecode.test(imagePath)) {
+                submit(imagePath);
+            }
+        }
+    }
+
+    private CompletableFuture<Image> submit(String imagePath) {
+        CompletableFuture<Image> future = CompletableFuture.supplyAsync(() -> decodeIntoCache(imagePath), EXECUTOR);
+        pending.put(imagePath, future);
+        return future;
+    }
+
+    private Image decodeIntoCache(String imagePath) {
+        Image image = decoder.apply(imagePath);
+        cache.put(imagePath, image);
+        return image;
+    }
+
+    void clear() {
+        for (CompletableFuture<Image> future : pending.values()) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+}
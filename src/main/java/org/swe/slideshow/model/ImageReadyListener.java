@@ -0,0 +1,7 @@
+package org.swe.slideshow.model;
+
+import javafx.scene.image.Image;
+
+public interface ImageReadyListener {
+    void onImageReady(AlbumItem item, Image image);
+}
@@ -0,0 +1,130 @@
+package org.swe.slideshow.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class ImpressionIndex<K> {
+    private final TreeMap<String, Set<K>> tokens = new TreeMap<>();
+    private final Map<String, Set<K>> emotions = new HashMap<>();
+
+    public void update(K key, String oldText, String oldEmotion, String newText, String newEmotion) {
+        Set<String> oldTokens = tokenize(oldText);
+        Set<String> newTokens = tokenize(newText);
+        for (String token : oldTokens) {
+            if (!newTokens.contains(token)) {
+                removePosting(tokens, token, key);
+            }
+        }
+        for (String token : newTokens) {
+            if (!oldTokens.contains(token)) {
+                tokens.computeIfAbsent(token, t -> new HashSet<>()).add(key);
+            }
+        }
+        String oldKey = emotionKey(oldEmotion);
+        String newKey = emotionKey(newEmotion);
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            removePosting(emotions, oldKey, key);
+        }
+        if (newKey != null) {
+            emotions.computeIfAbsent(newKey, e -> new HashSet<>()).add(key);
+        }
+    }
+
+    public void add(K key, String text, String emotion) {
+        update(key, null, null, text, emotion);
+    }
+
+    public void remove(K key, String text, String emotion) {
+        update(key, text, emotion, null, null);
+    }
+
+    public void clear() {
+        tokens.clear();
+        emotions.clear();
+    }
+
+    public static boolean constrains(String emotion, String text) {
+        return emotionKey(emotion) != null || !tokenize(text).isEmpty();
+    }
+
+    public Set<K> query(String emotion, String text) {
+        List<Set<K>> constraints = new ArrayList<>();
+        String emotionKey = emotionKey(emotion);
+        if (emotionKey != null) {
+            constraints.add(emotions.getOrDefault(emotionKey, Set.of()));
+        }
+        for (String prefix : tokenize(text)) {
+            constraints.add(withPrefix(prefix));
+        }
+        if (constraints.isEmpty()) {
+            return null;
+        }
+        constraints.sort((first, second) -> Integer.compare(first.size(), second.size()));
+        Set<K> result = new LinkedHashSet<>(constraints.get(0));
+        for (int i = 1; i < constraints.size() && !result.isEmpty(); i++) {
+            result.retainAll(constraints.get(i));
+        }
+        return result;
+    }
+
+    Map<String, Set<K>> tokenPostings() {
+        return tokens;
+    }
+
+    Map<String, Set<K>> emotionPostings() {
+        return emotions;
+    }
+
+    private Set<K> withPrefix(String prefix) {
+        Collection<Set<K>> matches = tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (matches.size() == 1) {
+            return matches.iterator().next();
+        }
+        Set<K> union = new HashSet<>();
+        for (Set<K> posting : matches) {
+            union.addAll(posting);
+        }
+        return union;
+    }
+
+    private static <K> void removePosting(Map<String, Set<K>> postings, String term, K key) {
+        Set<K> posting = postings.get(term);
+        if (posting != null && posting.remove(key) && posting.isEmpty()) {
+            postings.remove(term);
+        }
+    }
+
+    private static String emotionKey(String emotion) {
+        if (emotion == null || emotion.isBlank()) {
+            return null;
+        }
+        return emotion.trim();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return result;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                result.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return result;
+    }
+}
@@ -1,13 +1,21 @@
 package org.swe.slideshow.model;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -16,10 +24,15 @@ public class ImpressionStore {
             "\"((?:\\\\.|[^\\\\\"])*)\"\\s*:\\s*\\{\\s*\"text\"\\s*:\\s*\"((?:\\\\.|[^\\\\\"])*)\"\\s*,\\s*\"emotion\"\\s*:\\s*\"((?:\\\\.|[^\\\\\"])*)\"\\s*}\\s*(?:,|$)",
             Pattern.DOTALL);
 
+    private static final int INDEX_MAGIC = 0x53494958;
+    private static final int INDEX_VERSION = 1;
+
     public record ImpressionRecord(String text, String emotion) {}
 
     private final Path storageFile;
+    private final Path indexFile;
     private final Map<String, ImpressionRecord> impressions;
+    private final ImpressionIndex<String> index = new ImpressionIndex<>();
     private boolean initialized;
 
     public ImpressionStore() {
@@ -28,6 +41,7 @@ public class ImpressionStore {
 
     public ImpressionStore(Path storageFile) {
         this.storageFile = storageFile;
+        this.indexFile = storageFile.resolveSibling(storageFile.getFileName() + ".index");
         this.impressions = new HashMap<>();
     }
 
@@ -48,14 +62,29 @@ public class ImpressionStore {
         boolean isTextEmpty = text == null || text.isBlank();
         boolean isEmotionEmpty = emotion == null || emotion.isBlank();
 
+        ImpressionRecord previous;
+        ImpressionRecord current = null;
         if (isTextEmpty && isEmotionEmpty) {
-            impressions.remove(imagePath);
+            previous = impressions.remove(imagePath);
         } else {
-            impressions.put(imagePath, new ImpressionRecord(
+            current = new ImpressionRecord(
                     isTextEmpty ? "" : text,
-                    isEmotionEmpty ? "" : emotion));
+                    isEmotionEmpty ? "" : emotion);
+            previous = impressions.put(imagePath, current);
         }
+        index.update(imagePath,
+                previous != null ? previous.text() : null,
+                previous != null ? previous.emotion() : null,
+                current != null ? current.text() : null,
+                current != null ? current.emotion() : null);
         persist();
+        persistIndex();
+    }
+
+    public synchronized Set<String> findImagePaths(String emotion, String text) {
+        ensureLoaded();
+        Set<String> matches = index.query(emotion, text);
+        return new LinkedHashSet<>(matches != null ? matches : impressions.keySet());
     }
 
     private void ensureLoaded() {
@@ -63,12 +92,86 @@ public class ImpressionStore {
             return;
         }
         impressions.clear();
+        index.clear();
         if (Files.exists(storageFile)) {
             loadFromDisk();
         }
+        if (!loadIndex()) {
+            index.clear();
+            for (Map.Entry<String, ImpressionRecord> entry : impressions.entrySet()) {
+                index.add(entry.getKey(), entry.getValue().text(), entry.getValue().emotion());
+            }
+            if (!impressions.isEmpty()) {
+                persistIndex();
+            }
+        }
         initialized = true;
     }
 
+    private long storageStamp() {
+        try {
+            return Files.exists(storageFile) ? Files.getLastModifiedTime(storageFile).toMillis() : -1;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private boolean loadIndex() {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION || in.readLong() != storageStamp()) {
+                return false;
+            }
+            readPostings(in, index.tokenPostings());
+            readPostings(in, index.emotionPostings());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void persistIndex() {
+        try {
+            Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(storageStamp());
+                writePostings(out, index.tokenPostings());
+                writePostings(out, index.emotionPostings());
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writePostings(DataOutputStream out, Map<String, Set<String>> postings) throws IOException {
+        out.writeInt(postings.size());
+        for (Map.Entry<String, Set<String>> entry : postings.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (String imagePath : entry.getValue()) {
+                out.writeUTF(imagePath);
+            }
+        }
+    }
+
+    private static void readPostings(DataInputStream in, Map<String, Set<String>> postings) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Set<String> imagePaths = new HashSet<>();
+            for (int j = 0; j < size; j++) {
+                imagePaths.add(in.readUTF());
+            }
+            postings.put(term, imagePaths);
+        }
+    }
+
     private void loadFromDisk() {
         try {
             String content = Files.readString(storageFile, StandardCharsets.UTF_8).trim();
@@ -0,0 +1,46 @@
+package org.swe.slideshow.model;
+
+import java.util.Arrays;
+
+class IndexList {
+    private static final int DEFAULT_CAPACITY = 16;
+    private int[] indices;
+    private int size;
+
+    IndexList() {
+        indices = new int[DEFAULT_CAPACITY];
+    }
+
+    void add(int index) {
+        ensureCapacity(size + 1);
+        indices[size++] = index;
+    }
+
+    int get(int position) {
+        return indices[position];
+    }
+
+    int indexOf(int index) {
+        int position = Arrays.binarySearch(indices, 0, size, index);
+        return position >= 0 ? position : -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private void ensureCapacity(int desiredCapacity) {
+        if (desiredCapacity <= indices.length) {
+            return;
+        }
+        int newCapacity = indices.length;
+        while (newCapacity < desiredCapacity) {
+            newCapacity *= 2;
+        }
+        indices = Arrays.copyOf(indices, newCapacity);
+    }
+}
@@ -0,0 +1,47 @@
+package org.swe.slideshow.model;
+
+final class IndexedAlbum {
+    private final AlbumIndex index;
+    private final AlbumStore.ImageLocator locator;
+    private final int[] rows;
+    private final int size;
+
+    IndexedAlbum(AlbumIndex index, AlbumStore.ImageLocator locator, int[] rows, int size) {
+        this.index = index;
+        this.locator = locator;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String imagePath(int item) {
+        int row = row(item);
+        return locator.pathOf(index.imagePath(row), index.presence(row));
+    }
+
+    String text(int item) {
+        return index.text(row(item));
+    }
+
+    String emotion(int item) {
+        return index.emotion(row(item));
+    }
+
+    AlbumItem[] items() {
+        AlbumItem[] items = new AlbumItem[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = new AlbumItem(imagePath(i), text(i), emotion(i));
+        }
+        return items;
+    }
+
+    private int row(int item) {
+        if (item < 0 || item >= size) {
+            throw new IndexOutOfBoundsException(item);
+        }
+        return rows != null ? rows[item] : item;
+    }
+}
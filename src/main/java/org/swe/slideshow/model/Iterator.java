@@ -4,6 +4,9 @@ public interface Iterator {
     boolean hasNext(int x);
     Object next();
     Object preview();
+    Object seek(int index);
+    Object seekToItem(String itemId);
+    void prepareNext();
     int getCurrentIndex();
     String getCurrentItemId();
     AlbumItem getCurrentItem();
@@ -0,0 +1,267 @@
+package org.swe.slideshow.model;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+public class ParallelTreeWalker {
+    public static final int DEFAULT_PARALLELISM =
+            Math.min(16, Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    private static final int FILTER_CHUNK_SIZE = 128;
+    private static final int LOOKAHEAD = DEFAULT_PARALLELISM * 2;
+    private static final Comparator<Path> BY_NAME = Comparator.comparing(path -> path.getFileName().toString());
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ForkJoinPool POOL = new ForkJoinPool(DEFAULT_PARALLELISM, pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("tree-walker-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+    public List<Path> walk(Path root, Predicate<Path> fileFilter) throws IOException {
+        return walk(root, fileFilter, null);
+    }
+
+    public List<Path> walk(Path root, Predicate<Path> fileFilter, ScanCatalog catalog) throws IOException {
+        List<Path> result = new ArrayList<>();
+        walk(root, fileFilter, result::addAll, () -> false, catalog);
+        return result;
+    }
+
+    public void walk(Path root,
+                     Predicate<Path> fileFilter,
+                     Consumer<List<Path>> sink,
+                     BooleanSupplier cancelled,
+                     ScanCatalog catalog) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new NotDirectoryException(root.toString());
+        }
+        AtomicBoolean stopped = new AtomicBoolean();
+        WalkContext context = new WalkContext(root, fileFilter, () -> stopped.get() || cancelled.getAsBoolean(), catalog);
+
+        Deque<PendingDirectory> pending = new ArrayDeque<>();
+        pending.push(new PendingDirectory(root));
+        int inFlight = 0;
+        try {
+            while (!pending.isEmpty() && !cancelled.getAsBoolean()) {
+                inFlight = prefetch(pending, context, inFlight);
+                PendingDirectory next = pending.pop();
+                if (next.task == null) {
+                    next.task = POOL.submit(new DirectoryTask(next.path, context));
+                } else {
+                    inFlight--;
+                }
+                DirectoryListing listing = next.task.join();
+                if (!listing.files().isEmpty()) {
+                    sink.accept(listing.files());
+                }
+                List<Path> children = listing.children();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.push(new PendingDirectory(children.get(i)));
+                }
+            }
+        } finally {
+            stopped.set(true);
+        }
+    }
+
+    private static int prefetch(Deque<PendingDirectory> pending, WalkContext context, int inFlight) {
+        for (PendingDirectory directory : pending) {
+            if (inFlight >= LOOKAHEAD) {
+                break;
+            }
+            if (directory.task == null) {
+                directory.task = POOL.submit(new DirectoryTask(directory.path, context));
+                inFlight++;
+            }
+        }
+        return inFlight;
+    }
+
+    private static Object directoryKey(Path directory, BasicFileAttributes attributes) throws IOException {
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey : directory.toRealPath();
+    }
+
+    private record WalkContext(Path root,
+                               Predicate<Path> fileFilter,
+                               BooleanSupplier cancelled,
+                               ScanCatalog catalog,
+                               Set<Object> visited) {
+        private WalkContext(Path root, Predicate<Path> fileFilter, BooleanSupplier cancelled, ScanCatalog catalog) {
+            this(root, fileFilter, cancelled, catalog, ConcurrentHashMap.newKeySet());
+        }
+
+        private String relativize(Path directory) {
+            return root.relativize(directory).toString();
+        }
+    }
+
+    private record DirectoryListing(List<Path> files, List<Path> children) {
+        private static final DirectoryListing EMPTY = new DirectoryListing(List.of(), List.of());
+    }
+
+    private static final class PendingDirectory {
+        private final Path path;
+        private ForkJoinTask<DirectoryListing> task;
+
+        private PendingDirectory(Path path) {
+            this.path = path;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class DirectoryTask extends RecursiveTask<DirectoryListing> {
+        private final Path directory;
+        private final WalkContext context;
+
+        private DirectoryTask(Path directory, WalkContext context) {
+            this.directory = directory;
+            this.context = context;
+        }
+
+        @Override
+        protected DirectoryListing compute() {
+            if (context.cancelled().getAsBoolean()) {
+                return DirectoryListing.EMPTY;
+            }
+            long modifiedTime;
+            try {
+                BasicFileAttributes attributes = directory.equals(context.root())
+                        ? Files.readAttributes(directory, BasicFileAttributes.class)
+                        : Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                if (!attributes.isDirectory()) {
+                    return DirectoryListing.EMPTY;
+                }
+                if (!context.visited().add(directoryKey(directory, attributes))) {
+                    return DirectoryListing.EMPTY;
+                }
+                modifiedTime = attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return DirectoryListing.EMPTY;
+            }
+
+            String relativeDirectory = context.relativize(directory);
+            ScanCatalog catalog = context.catalog();
+            ScanCatalog.Entry cached = catalog != null ? catalog.lookup(relativeDirectory, modifiedTime) : null;
+            List<String> fileNames;
+            List<String> subdirectoryNames;
+            if (cached != null) {
+                fileNames = cached.files();
+                subdirectoryNames = cached.subdirectories();
+            } else {
+                fileNames = new ArrayList<>();
+                subdirectoryNames = new ArrayList<>();
+                if (!listDirectory(fileNames, subdirectoryNames)) {
+                    return DirectoryListing.EMPTY;
+                }
+                if (catalog != null) {
+                    catalog.record(relativeDirectory, modifiedTime, fileNames, subdirectoryNames);
+                }
+            }
+
+            List<Path> files = new ArrayList<>(fileNames.size());
+            for (String name : fileNames) {
+                files.add(directory.resolve(name));
+            }
+            List<Path> children = new ArrayList<>(subdirectoryNames.size());
+            for (String name : subdirectoryNames) {
+                children.add(directory.resolve(name));
+            }
+            return new DirectoryListing(files, children);
+        }
+
+        private boolean listDirectory(List<String> fileNames, List<String> subdirectoryNames) {
+            List<Path> entries = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            entries.sort(BY_NAME);
+
+            List<Path> candidates = new ArrayList<>();
+            for (Path entry : entries) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (IOException e) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    subdirectoryNames.add(entry.getFileName().toString());
+                } else if (attributes.isRegularFile()
+                        || (attributes.isSymbolicLink() && Files.isRegularFile(entry))) {
+                    candidates.add(entry);
+                }
+            }
+
+            boolean[] accepted = new boolean[candidates.size()];
+            List<FilterTask> chunks = new ArrayList<>();
+            for (int start = 0; start < candidates.size(); start += FILTER_CHUNK_SIZE) {
+                int end = Math.min(candidates.size(), start + FILTER_CHUNK_SIZE);
+                chunks.add(new FilterTask(candidates, accepted, start, end, context.fileFilter()));
+            }
+            if (chunks.size() == 1) {
+                chunks.get(0).compute();
+            } else if (!chunks.isEmpty()) {
+                ForkJoinTask.invokeAll(chunks);
+            }
+            for (int i = 0; i < accepted.length; i++) {
+                if (accepted[i]) {
+                    fileNames.add(candidates.get(i).getFileName().toString());
+                }
+            }
+            return true;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class FilterTask extends RecursiveAction {
+        private final List<Path> candidates;
+        private final boolean[] accepted;
+        private final int start;
+        private final int end;
+        private final Predicate<Path> filter;
+
+        private FilterTask(List<Path> candidates, boolean[] accepted, int start, int end, Predicate<Path> filter) {
+            this.candidates = candidates;
+            this.accepted = accepted;
+            this.start = start;
+            this.end = end;
+            this.filter = filter;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = start; i < end; i++) {
+                accepted[i] = filter.test(candidates.get(i));
+            }
+        }
+    }
+}
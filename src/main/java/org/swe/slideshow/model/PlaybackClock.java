@@ -0,0 +1,103 @@
+package org.swe.slideshow.model;
+
+import javafx.animation.AnimationTimer;
+
+public class PlaybackClock {
+    private static final long MIN_PREPARE_LEAD_NANOS = 150_000_000L;
+    private static final int RECENT_SAMPLES = 256;
+
+    public record JitterStats(int slides, int skipped, double meanLatenessMs, double maxLatenessMs) {}
+
+    private final PlaybackListener listener;
+    private final long[] recentLateness = new long[RECENT_SAMPLES];
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            onPulse(now);
+        }
+    };
+    private long intervalNanos;
+    private long prepareLeadNanos;
+    private long startNanos;
+    private long slideNumber;
+    private boolean prepared;
+    private boolean running;
+    private int sampleCount;
+    private int skippedCount;
+    private long totalLateness;
+    private long maxLateness;
+
+    public PlaybackClock(PlaybackListener listener) {
+        this.listener = listener;
+    }
+
+    public void start(long intervalMillis) {
+        intervalNanos = Math.max(1, intervalMillis) * 1_000_000L;
+        prepareLeadNanos = Math.min(intervalNanos / 2, Math.max(MIN_PREPARE_LEAD_NANOS, intervalNanos / 4));
+        startNanos = System.nanoTime();
+        slideNumber = 1;
+        prepared = false;
+        sampleCount = 0;
+        skippedCount = 0;
+        totalLateness = 0;
+        maxLateness = 0;
+        running = true;
+        timer.start();
+    }
+
+    public void stop() {
+        running = false;
+        timer.stop();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public double elapsedSeconds() {
+        return running ? (System.nanoTime() - startNanos) / 1_000_000_000.0 : 0;
+    }
+
+    private void onPulse(long now) {
+        long deadline = startNanos + slideNumber * intervalNanos;
+        if (!prepared && now >= deadline - prepareLeadNanos) {
+            prepared = true;
+            listener.onPrepareSlide();
+        }
+        if (now >= deadline) {
+            listener.onSlideDue();
+            recordLateness(System.nanoTime() - deadline);
+            slideNumber++;
+            long current = System.nanoTime();
+            while (startNanos + slideNumber * intervalNanos <= current) {
+                slideNumber++;
+                skippedCount++;
+            }
+            prepared = false;
+        }
+        if (running) {
+            listener.onFrame((now - startNanos) / 1_000_000_000.0);
+        }
+    }
+
+    private void recordLateness(long lateness) {
+        recentLateness[sampleCount % RECENT_SAMPLES] = lateness;
+        sampleCount++;
+        totalLateness += lateness;
+        maxLateness = Math.max(maxLateness, lateness);
+    }
+
+    public JitterStats getJitterStats() {
+        double mean = sampleCount > 0 ? totalLateness / (double) sampleCount / 1_000_000.0 : 0;
+        return new JitterStats(sampleCount, skippedCount, mean, maxLateness / 1_000_000.0);
+    }
+
+    public long[] getRecentLatenessNanos() {
+        int count = Math.min(sampleCount, RECENT_SAMPLES);
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = recentLateness[(sampleCount - count + i) % RECENT_SAMPLES];
+        }
+        return result;
+    }
+}
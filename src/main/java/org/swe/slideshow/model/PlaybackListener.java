@@ -0,0 +1,7 @@
+package org.swe.slideshow.model;
+
+public interface PlaybackListener {
+    void onPrepareSlide();
+    void onSlideDue();
+    void onFrame(double elapsedSeconds);
+}
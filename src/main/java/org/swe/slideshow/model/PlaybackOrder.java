@@ -0,0 +1,21 @@
+package org.swe.slideshow.model;
+
+public enum PlaybackOrder {
+    SCAN("Как в каталоге"),
+    REVERSE("В обратном порядке"),
+    SHUFFLE("Случайный"),
+    NAME("По имени"),
+    SIZE("По размеру"),
+    MODIFIED("По дате изменения");
+
+    private final String label;
+
+    PlaybackOrder(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,136 @@
+package org.swe.slideshow.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ScanCatalog {
+    private static final int MAGIC = 0x53534354;
+    private static final int VERSION = 1;
+    private static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".slideshow-catalog");
+
+    public record Entry(long modifiedTime, List<String> files, List<String> subdirectories) {}
+
+    private final Path storageFile;
+    private final String root;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private ScanCatalog(Path storageFile, String root, Map<String, Entry> previous) {
+        this.storageFile = storageFile;
+        this.root = root;
+        this.previous = previous;
+    }
+
+    public static ScanCatalog load(Path rootDirectory, String profile) {
+        String root = rootDirectory.toAbsolutePath().normalize().toString();
+        Path storageFile = DEFAULT_DIRECTORY.resolve(fileNameFor(root + "\n" + profile));
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.exists(storageFile)) {
+            try {
+                readEntries(storageFile, root, entries);
+            } catch (IOException | RuntimeException e) {
+                entries.clear();
+            }
+        }
+        return new ScanCatalog(storageFile, root, entries);
+    }
+
+    Entry lookup(String relativeDirectory, long modifiedTime) {
+        Entry entry = previous.get(relativeDirectory);
+        if (entry == null || entry.modifiedTime() != modifiedTime) {
+            return null;
+        }
+        current.put(relativeDirectory, entry);
+        return entry;
+    }
+
+    void record(String relativeDirectory, long modifiedTime, List<String> files, List<String> subdirectories) {
+        current.put(relativeDirectory, new Entry(modifiedTime, List.copyOf(files), List.copyOf(subdirectories)));
+    }
+
+    public void save() {
+        try {
+            Files.createDirectories(storageFile.getParent());
+            Path tempFile = storageFile.resolveSibling(storageFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(root);
+                out.writeInt(current.size());
+                for (Map.Entry<String, Entry> entry : current.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().modifiedTime());
+                    writeNames(out, entry.getValue().files());
+                    writeNames(out, entry.getValue().subdirectories());
+                }
+            }
+            Files.move(tempFile, storageFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void readEntries(Path storageFile, String root, Map<String, Entry> entries) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storageFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !root.equals(in.readUTF())) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String directory = in.readUTF();
+                long modifiedTime = in.readLong();
+                List<String> files = readNames(in);
+                List<String> subdirectories = readNames(in);
+                entries.put(directory, new Entry(modifiedTime, files, subdirectories));
+            }
+        }
+    }
+
+    private static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+        out.writeInt(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> names = new ArrayList<>(Math.min(Math.max(count, 0), 1024));
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    private static String fileNameFor(String key) {
+        return digest(key) + ".bin";
+    }
+
+    static String digest(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.swe.slideshow.model;
+
+public interface ScanListener {
+    void onItemsFound(int totalCount);
+    void onScanCompleted(int totalCount);
+}
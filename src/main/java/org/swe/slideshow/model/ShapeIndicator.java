@@ -0,0 +1,219 @@
+package org.swe.slideshow.model;
+
+import javafx.geometry.Pos;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import javafx.scene.text.Font;
+
+public class ShapeIndicator extends Indicator {
+    private Rectangle progressBar;
+    private Rectangle backgroundBar;
+    private Arc progressArc;
+    private Circle backgroundCircle;
+    private Text titleText;
+    private Text percentText;
+    private Text fractionText;
+    private Pane progressPane;
+    private Pane circularPane;
+    private HBox textBox;
+    private Text centerTimeText;
+
+    @Override
+    public void setPaint(Color normalColor) {
+        this.normalColor = normalColor;
+        if (backgroundBar != null) {
+            backgroundBar.setFill(normalColor);
+        }
+        if (backgroundCircle != null) {
+            backgroundCircle.setStroke(normalColor);
+        }
+    }
+
+    @Override
+    public void setSelectedColor(Color selectedColor) {
+        this.selectedColor = selectedColor;
+        if (progressBar != null) {
+            progressBar.setFill(selectedColor);
+        }
+        if (progressArc != null) {
+            progressArc.setStroke(selectedColor);
+        }
+        if (centerTimeText != null) {
+            centerTimeText.setFill(selectedColor);
+        }
+        if (percentText != null) {
+            percentText.setFill(selectedColor);
+        }
+    }
+
+    @Override
+    public void setTitle(String title) {
+        if (titleText != null) {
+            if (!title.equals(titleText.getText())) {
+                titleText.setText(title);
+            }
+        } else {
+            addTitle(title);
+        }
+    }
+
+    @Override
+    public void addTitle(String title) {
+        titleText = new Text(title);
+        titleText.setFont(new Font(14));
+        getPanel().getChildren().add(0, titleText);
+    }
+
+    @Override
+    public void addProgressBar(float measure) {
+        this.currentValue = measure;
+
+        if (progressPane == null) {
+            progressPane = new Pane();
+            progressPane.setPrefWidth(FIXED_BAR_WIDTH);
+            progressPane.setPrefHeight(BAR_HEIGHT + 10);
+            progressPane.setMinWidth(FIXED_BAR_WIDTH);
+            progressPane.setMinHeight(BAR_HEIGHT + 10);
+            progressPane.setMaxWidth(FIXED_BAR_WIDTH);
+
+            backgroundBar = new Rectangle(0, 0, FIXED_BAR_WIDTH, BAR_HEIGHT);
+            backgroundBar.setFill(normalColor);
+            backgroundBar.setLayoutX(0);
+            backgroundBar.setLayoutY(5);
+            backgroundBar.setArcWidth(5);
+            backgroundBar.setArcHeight(5);
+            backgroundBar.setStroke(Color.DARKGRAY);
+            backgroundBar.setStrokeWidth(1);
+
+            double initialWidth = progressWidth(startValue, stopValue, currentValue);
+            shownBarPixels = (int) Math.round(initialWidth);
+            progressBar = new Rectangle(0, 0, initialWidth, BAR_HEIGHT);
+            progressBar.setFill(selectedColor);
+            progressBar.setLayoutX(0);
+            progressBar.setLayoutY(5);
+            progressBar.setArcWidth(5);
+            progressBar.setArcHeight(5);
+
+            progressPane.getChildren().addAll(backgroundBar, progressBar);
+            insertGauge(progressPane);
+            if (gauge == Gauge.NONE) {
+                gauge = Gauge.BAR;
+            }
+        } else if (gauge == Gauge.BAR) {
+            int pixels = (int) Math.round(Math.max(progressWidth(startValue, stopValue, currentValue), 2.0));
+            if (pixels != shownBarPixels) {
+                shownBarPixels = pixels;
+                applyBarPixels(pixels);
+            }
+        }
+    }
+
+    @Override
+    public void addCircularProgress(float measure) {
+        this.currentValue = measure;
+        gauge = Gauge.CIRCLE;
+
+        if (circularPane == null) {
+            circularPane = new Pane();
+            double size = (CIRCLE_RADIUS + CIRCLE_STROKE_WIDTH) * 2;
+            circularPane.setPrefWidth(size);
+            circularPane.setPrefHeight(size);
+            circularPane.setMinWidth(size);
+            circularPane.setMinHeight(size);
+
+            double centerX = CIRCLE_RADIUS + CIRCLE_STROKE_WIDTH;
+            double centerY = CIRCLE_RADIUS + CIRCLE_STROKE_WIDTH;
+
+            backgroundCircle = new Circle(centerX, centerY, CIRCLE_RADIUS);
+            backgroundCircle.setFill(Color.TRANSPARENT);
+            backgroundCircle.setStroke(normalColor);
+            backgroundCircle.setStrokeWidth(CIRCLE_STROKE_WIDTH);
+
+            double initialAngle = circularAngle(startValue, stopValue, currentValue);
+            shownArcSteps = Math.round(initialAngle / ARC_DEGREES_PER_PIXEL);
+            progressArc = new Arc(centerX, centerY, CIRCLE_RADIUS, CIRCLE_RADIUS, 90, initialAngle);
+            progressArc.setType(ArcType.OPEN);
+            progressArc.setFill(Color.TRANSPARENT);
+            progressArc.setStroke(selectedColor);
+            progressArc.setStrokeWidth(CIRCLE_STROKE_WIDTH);
+            progressArc.setStrokeLineCap(javafx.scene.shape.StrokeLineCap.ROUND);
+
+            centerTimeText = new Text();
+            centerTimeText.setFont(new Font(18));
+            centerTimeText.setFill(selectedColor);
+            centerTimeText.setLayoutX(centerX - 30);
+            centerTimeText.setLayoutY(centerY + 5);
+            centerTimeText.setText("00:00");
+            shownSeconds = 0;
+
+            circularPane.getChildren().addAll(backgroundCircle, progressArc, centerTimeText);
+            insertGauge(circularPane);
+        } else {
+            updateGauge();
+        }
+    }
+
+    private void insertGauge(Pane gaugePane) {
+        int insertIndex = 1;
+        if (getPanel().getChildren().size() < insertIndex) {
+            insertIndex = getPanel().getChildren().size();
+        }
+        getPanel().getChildren().add(insertIndex, gaugePane);
+    }
+
+    @Override
+    protected void ensureTextRow() {
+        if (textBox == null) {
+            textBox = new HBox(15);
+            textBox.setAlignment(Pos.CENTER);
+
+            percentText = new Text();
+            percentText.setFont(new Font(16));
+            percentText.setFill(selectedColor);
+            textBox.getChildren().add(percentText);
+
+            fractionText = new Text();
+            fractionText.setFont(new Font(16));
+            fractionText.setFill(Color.BLACK);
+            textBox.getChildren().add(fractionText);
+
+            getPanel().getChildren().add(textBox);
+        }
+    }
+
+    @Override
+    protected boolean hasTextRow() {
+        return textBox != null;
+    }
+
+    @Override
+    protected void applyText(String percentLabel, String fractionLabel) {
+        if (percentLabel != null) {
+            percentText.setText(percentLabel);
+        }
+        if (fractionLabel != null) {
+            fractionText.setText(fractionLabel);
+        }
+    }
+
+    @Override
+    protected void applyClock(String clockLabel) {
+        centerTimeText.setText(clockLabel);
+    }
+
+    @Override
+    protected void applyBarPixels(int pixels) {
+        progressBar.setWidth(pixels);
+    }
+
+    @Override
+    protected void applyArcSteps(long steps) {
+        progressArc.setLength(steps * ARC_DEGREES_PER_PIXEL);
+    }
+}
@@ -1,50 +1,426 @@
 package org.swe.slideshow.model;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 class SlideCollection {
     private static final int DEFAULT_CAPACITY = 16;
-    private AlbumItem[] items;
+    private static final int DEFAULT_NAME_CAPACITY = 1024;
+
+    private final List<String> directories = new ArrayList<>();
+    private final Map<String, Integer> directoryIds = new HashMap<>();
+    private final Map<Integer, String> impressionTexts = new HashMap<>();
+    private final Map<Integer, String> emotions = new HashMap<>();
+    private final ImpressionIndex<Integer> impressionIndex = new ImpressionIndex<>();
+    private final BitSet detachedSlots = new BitSet();
+    private int[] order;
     private int size;
+    private int[] slotDirectories;
+    private int[] nameOffsets;
+    private byte[] names;
+    private int slotCount;
+    private int[] slotPositions;
+    private int[] pathTable;
+    private int generation;
+    private int version;
+    private IndexedAlbum backing;
+    private int backedSlots;
+    private boolean backedPathsIndexed;
+    private boolean impressionIndexPending;
 
     SlideCollection() {
-        items = new AlbumItem[DEFAULT_CAPACITY];
+        order = new int[DEFAULT_CAPACITY];
+        slotDirectories = new int[DEFAULT_CAPACITY];
+        nameOffsets = new int[DEFAULT_CAPACITY + 1];
+        names = new byte[DEFAULT_NAME_CAPACITY];
+        pathTable = new int[DEFAULT_CAPACITY * 2];
     }
 
     void add(AlbumItem item) {
         if (item == null || item.getImagePath() == null || item.getImagePath().isBlank()) {
             return;
         }
-        ensureCapacity(size + 1);
-        items[size++] = item;
+        ensureBackedPaths();
+        int slot = slotCount;
+        storePath(slot, item.getImagePath());
+        slotCount++;
+        indexPath(slot);
+        storeSparse(impressionTexts, slot, item.getImpressionText());
+        storeSparse(emotions, slot, item.getEmotion());
+        impressionIndex.add(slot, item.getImpressionText(), item.getEmotion());
+
+        ensureOrderCapacity(size + 1);
+        if (slotPositions != null) {
+            if (slot >= slotPositions.length) {
+                int length = slotPositions.length;
+                slotPositions = Arrays.copyOf(slotPositions, Math.max(slot + 1, length * 2));
+                Arrays.fill(slotPositions, length, slotPositions.length, -1);
+            }
+            slotPositions[slot] = size;
+        }
+        order[size++] = slot;
+        version++;
+    }
+
+    void load(IndexedAlbum album) {
+        clear();
+        int count = album.size();
+        backing = album;
+        backedSlots = count;
+        slotCount = count;
+        ensureOrderCapacity(count);
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        size = count;
+        impressionIndexPending = count > 0;
+        version++;
     }
 
     AlbumItem getItem(int index) {
         if (index < 0 || index >= size) {
             return null;
         }
-        return items[index];
+        return new SlotItem(this, order[index], generation, pathOf(order[index]));
     }
 
     int size() {
         return size;
     }
 
+    int version() {
+        return version;
+    }
+
+    int indexOf(AlbumItem item) {
+        if (!(item instanceof SlotItem slotItem) || slotItem.owner != this || slotItem.generation != generation) {
+            return -1;
+        }
+        return positionOfSlot(slotItem.slot);
+    }
+
+    int indexOfPath(String imagePath) {
+        if (imagePath == null) {
+            return -1;
+        }
+        ensureBackedPaths();
+        int cut = nameStart(imagePath);
+        Integer directory = directoryIds.get(imagePath.substring(0, cut));
+        if (directory == null) {
+            return -1;
+        }
+        byte[] name = imagePath.substring(cut).getBytes(StandardCharsets.UTF_8);
+        int mask = pathTable.length - 1;
+        for (int i = pathHash(directory, name, 0, name.length) & mask; pathTable[i] != 0; i = (i + 1) & mask) {
+            int slot = pathTable[i] - 1;
+            if (slotDirectories[slot] == directory
+                    && Arrays.equals(names, nameOffsets[slot], nameOffsets[slot + 1], name, 0, name.length)) {
+                int position = positionOfSlot(slot);
+                if (position >= 0) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    int removeIf(Predicate<AlbumItem> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = order[i];
+            if (filter.test(new SlotItem(this, slot, generation, pathOf(slot)))) {
+                if (!isBacked(slot)) {
+                    impressionIndex.remove(slot, impressionTexts.remove(slot), emotions.remove(slot));
+                } else if (!impressionIndexPending) {
+                    impressionIndex.remove(slot, backing.text(slot), backing.emotion(slot));
+                }
+            } else {
+                order[kept++] = slot;
+            }
+        }
+        int removed = size - kept;
+        if (removed > 0) {
+            size = kept;
+            slotPositions = null;
+            version++;
+        }
+        return removed;
+    }
+
     void clear() {
-        Arrays.fill(items, 0, size, null);
+        directories.clear();
+        directoryIds.clear();
+        impressionTexts.clear();
+        emotions.clear();
+        impressionIndex.clear();
+        detachedSlots.clear();
+        backing = null;
+        backedSlots = 0;
+        backedPathsIndexed = false;
+        impressionIndexPending = false;
+        slotPositions = null;
+        pathTable = new int[DEFAULT_CAPACITY * 2];
         size = 0;
+        slotCount = 0;
+        nameOffsets[0] = 0;
+        generation++;
+        version++;
+    }
+
+    IndexList impressionMatches(String emotion, String text) {
+        if (!ImpressionIndex.constrains(emotion, text)) {
+            return null;
+        }
+        ensureImpressionIndex();
+        Set<Integer> slots = impressionIndex.query(emotion, text);
+        if (slots == null) {
+            return null;
+        }
+        int[] positions = new int[slots.size()];
+        int count = 0;
+        for (int slot : slots) {
+            int position = positionOfSlot(slot);
+            if (position >= 0) {
+                positions[count++] = position;
+            }
+        }
+        Arrays.sort(positions, 0, count);
+        IndexList result = new IndexList();
+        for (int i = 0; i < count; i++) {
+            result.add(positions[i]);
+        }
+        return result;
+    }
+
+    private int positionOfSlot(int slot) {
+        if (size == slotCount) {
+            return slot;
+        }
+        if (slotPositions == null) {
+            slotPositions = new int[slotCount];
+            Arrays.fill(slotPositions, -1);
+            for (int i = 0; i < size; i++) {
+                slotPositions[order[i]] = i;
+            }
+        }
+        return slot < slotPositions.length ? slotPositions[slot] : -1;
+    }
+
+    private boolean isBacked(int slot) {
+        return slot < backedSlots && !detachedSlots.get(slot);
+    }
+
+    private void ensureImpressionIndex() {
+        if (!impressionIndexPending) {
+            return;
+        }
+        impressionIndexPending = false;
+        for (int i = 0; i < size; i++) {
+            int slot = order[i];
+            if (isBacked(slot)) {
+                impressionIndex.add(slot, backing.text(slot), backing.emotion(slot));
+            }
+        }
+    }
+
+    private void ensureBackedPaths() {
+        if (backedPathsIndexed || backedSlots == 0) {
+            return;
+        }
+        backedPathsIndexed = true;
+        for (int slot = 0; slot < backedSlots; slot++) {
+            storePath(slot, backing.imagePath(slot));
+        }
+        pathTable = new int[grow(pathTable.length, slotCount * 2)];
+        for (int slot = 0; slot < slotCount; slot++) {
+            insertPath(slot);
+        }
+    }
+
+    private void storePath(int slot, String imagePath) {
+        int cut = nameStart(imagePath);
+        byte[] name = imagePath.substring(cut).getBytes(StandardCharsets.UTF_8);
+        ensureSlotCapacity(slot + 1);
+        ensureNameCapacity(nameOffsets[slot] + name.length);
+        slotDirectories[slot] = directoryId(imagePath.substring(0, cut));
+        System.arraycopy(name, 0, names, nameOffsets[slot], name.length);
+        nameOffsets[slot + 1] = nameOffsets[slot] + name.length;
+    }
+
+    private void indexPath(int slot) {
+        if (slotCount * 2 > pathTable.length) {
+            pathTable = new int[pathTable.length * 2];
+            for (int i = 0; i < slotCount; i++) {
+                insertPath(i);
+            }
+        } else {
+            insertPath(slot);
+        }
+    }
+
+    private void insertPath(int slot) {
+        int mask = pathTable.length - 1;
+        int i = pathHash(slotDirectories[slot], names, nameOffsets[slot], nameOffsets[slot + 1]) & mask;
+        while (pathTable[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        pathTable[i] = slot + 1;
+    }
+
+    private static int pathHash(int directory, byte[] bytes, int start, int end) {
+        int hash = directory;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int nameStart(String imagePath) {
+        return Math.max(imagePath.lastIndexOf('/'), imagePath.lastIndexOf('\\')) + 1;
+    }
+
+    private String pathOf(int slot) {
+        if (slot < backedSlots) {
+            return backing.imagePath(slot);
+        }
+        int start = nameOffsets[slot];
+        return directories.get(slotDirectories[slot])
+                + new String(names, start, nameOffsets[slot + 1] - start, StandardCharsets.UTF_8);
+    }
+
+    private int directoryId(String directory) {
+        Integer id = directoryIds.get(directory);
+        if (id == null) {
+            id = directories.size();
+            directories.add(directory);
+            directoryIds.put(directory, id);
+        }
+        return id;
+    }
+
+    private String impressionText(int slot, int itemGeneration) {
+        if (itemGeneration != generation) {
+            return "";
+        }
+        return isBacked(slot) ? backing.text(slot) : impressionTexts.getOrDefault(slot, "");
     }
 
-    private void ensureCapacity(int desiredCapacity) {
-        if (desiredCapacity <= items.length) {
+    private String emotion(int slot, int itemGeneration) {
+        if (itemGeneration != generation) {
+            return "";
+        }
+        return isBacked(slot) ? backing.emotion(slot) : emotions.getOrDefault(slot, "");
+    }
+
+    private void updateSparse(Map<Integer, String> values, int slot, int itemGeneration, String value) {
+        if (itemGeneration != generation) {
             return;
         }
-        int newCapacity = items.length;
+        boolean indexed = !isBacked(slot) || !impressionIndexPending;
+        detach(slot);
+        String oldText = impressionTexts.get(slot);
+        String oldEmotion = emotions.get(slot);
+        storeSparse(values, slot, value);
+        if (indexed) {
+            impressionIndex.update(slot, oldText, oldEmotion, impressionTexts.get(slot), emotions.get(slot));
+        } else {
+            impressionIndex.add(slot, impressionTexts.get(slot), emotions.get(slot));
+        }
+        version++;
+    }
+
+    private void detach(int slot) {
+        if (isBacked(slot)) {
+            storeSparse(impressionTexts, slot, backing.text(slot));
+            storeSparse(emotions, slot, backing.emotion(slot));
+            detachedSlots.set(slot);
+        }
+    }
+
+    private static void storeSparse(Map<Integer, String> values, int slot, String value) {
+        if (value == null || value.isEmpty()) {
+            values.remove(slot);
+        } else {
+            values.put(slot, value);
+        }
+    }
+
+    private void ensureOrderCapacity(int desiredCapacity) {
+        if (desiredCapacity > order.length) {
+            order = Arrays.copyOf(order, grow(order.length, desiredCapacity));
+        }
+    }
+
+    private void ensureSlotCapacity(int desiredCapacity) {
+        if (desiredCapacity > slotDirectories.length) {
+            int newCapacity = grow(slotDirectories.length, desiredCapacity);
+            slotDirectories = Arrays.copyOf(slotDirectories, newCapacity);
+            nameOffsets = Arrays.copyOf(nameOffsets, newCapacity + 1);
+        }
+    }
+
+    private void ensureNameCapacity(int desiredCapacity) {
+        if (desiredCapacity > names.length) {
+            names = Arrays.copyOf(names, grow(names.length, desiredCapacity));
+        }
+    }
+
+    private static int grow(int capacity, int desiredCapacity) {
+        int newCapacity = capacity;
         while (newCapacity < desiredCapacity) {
             newCapacity *= 2;
         }
-        items = Arrays.copyOf(items, newCapacity);
+        return newCapacity;
     }
-}
 
+    private static final class SlotItem extends AlbumItem {
+        private final SlideCollection owner;
+        private final int slot;
+        private final int generation;
+
+        private SlotItem(SlideCollection owner, int slot, int generation, String imagePath) {
+            super(imagePath);
+            this.owner = owner;
+            this.slot = slot;
+            this.generation = generation;
+        }
+
+        @Override
+        public String getImpressionText() {
+            return owner.impressionText(slot, generation);
+        }
+
+        @Override
+        public void setImpressionText(String impressionText) {
+            owner.updateSparse(owner.impressionTexts, slot, generation, impressionText);
+        }
 
+        @Override
+        public String getEmotion() {
+            return owner.emotion(slot, generation);
+        }
+
+        @Override
+        public void setEmotion(String emotion) {
+            owner.updateSparse(owner.emotions, slot, generation, emotion);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof SlotItem item
+                    && item.owner == owner && item.slot == slot && item.generation == generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + slot;
+        }
+    }
+}
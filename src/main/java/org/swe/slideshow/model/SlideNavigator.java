@@ -22,6 +22,12 @@ public class SlideNavigator {
         return iterator != null ? (Image) iterator.next() : null;
     }
 
+    public void prepareNext() {
+        if (iterator != null) {
+            iterator.prepareNext();
+        }
+    }
+
     public Image previousImage() {
         if (iterator == null) {
             return null;
@@ -29,6 +35,26 @@ public class SlideNavigator {
         return (Image) iterator.preview();
     }
 
+    public Image seek(int index) {
+        return iterator != null ? (Image) iterator.seek(index) : null;
+    }
+
+    public Image seekToItem(String itemId) {
+        return iterator != null && itemId != null ? (Image) iterator.seekToItem(itemId) : null;
+    }
+
+    public Image currentImage() {
+        return aggregate != null ? aggregate.loadImage(currentItem()) : null;
+    }
+
+    public Image currentFullResolutionImage() {
+        return aggregate != null ? aggregate.loadFullResolutionImage(currentItem()) : null;
+    }
+
+    public boolean currentImageCoversViewport(Image image) {
+        return aggregate != null && aggregate.coversViewport(image);
+    }
+
     public void refresh() {
         iterator = aggregate != null ? aggregate.getIterator() : null;
     }
@@ -37,6 +63,10 @@ public class SlideNavigator {
         return iterator != null ? iterator.getCurrentIndex() : 0;
     }
 
+    public String currentItemId() {
+        return iterator != null ? iterator.getCurrentItemId() : null;
+    }
+
     public AlbumItem currentItem() {
         return iterator != null ? iterator.getCurrentItem() : null;
     }
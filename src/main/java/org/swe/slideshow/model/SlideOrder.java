@@ -0,0 +1,35 @@
+package org.swe.slideshow.model;
+
+interface SlideOrder {
+    int positionAt(int step);
+
+    int stepOf(int position);
+
+    static SlideOrder identity() {
+        return new SlideOrder() {
+            @Override
+            public int positionAt(int step) {
+                return step;
+            }
+
+            @Override
+            public int stepOf(int position) {
+                return position;
+            }
+        };
+    }
+
+    static SlideOrder reverse(int size) {
+        return new SlideOrder() {
+            @Override
+            public int positionAt(int step) {
+                return size - 1 - step;
+            }
+
+            @Override
+            public int stepOf(int position) {
+                return position >= 0 ? size - 1 - position : -1;
+            }
+        };
+    }
+}
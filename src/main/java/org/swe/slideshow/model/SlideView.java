@@ -0,0 +1,55 @@
+package org.swe.slideshow.model;
+
+class SlideView {
+    private final SlideCollection collection;
+    private IndexList positions;
+    private int version;
+
+    SlideView(SlideCollection collection) {
+        this.collection = collection;
+    }
+
+    void showAll() {
+        positions = null;
+        version++;
+    }
+
+    void showOnly(IndexList positions) {
+        this.positions = positions;
+        version++;
+    }
+
+    int size() {
+        return positions != null ? positions.size() : collection.size();
+    }
+
+    AlbumItem getItem(int index) {
+        if (positions == null) {
+            return collection.getItem(index);
+        }
+        if (index < 0 || index >= positions.size()) {
+            return null;
+        }
+        return collection.getItem(positions.get(index));
+    }
+
+    int indexOf(AlbumItem item) {
+        int index = collection.indexOf(item);
+        if (positions == null || index < 0) {
+            return index;
+        }
+        return positions.indexOf(index);
+    }
+
+    int indexOfPath(String imagePath) {
+        int index = collection.indexOfPath(imagePath);
+        if (positions == null || index < 0) {
+            return index;
+        }
+        return positions.indexOf(index);
+    }
+
+    int version() {
+        return collection.version() + version;
+    }
+}
@@ -0,0 +1,73 @@
+package org.swe.slideshow.model;
+
+class SortedOrder implements SlideOrder {
+    interface PositionComparator {
+        int compare(int first, int second);
+    }
+
+    private final int[] positions;
+    private final int[] steps;
+
+    private SortedOrder(int[] positions) {
+        this.positions = positions;
+        this.steps = new int[positions.length];
+        for (int step = 0; step < positions.length; step++) {
+            steps[positions[step]] = step;
+        }
+    }
+
+    static SortedOrder byLongKey(long[] keys) {
+        return sorted(keys.length, (first, second) -> {
+            int result = Long.compare(keys[first], keys[second]);
+            return result != 0 ? result : Integer.compare(first, second);
+        });
+    }
+
+    static SortedOrder byStringKey(String[] keys) {
+        return sorted(keys.length, (first, second) -> {
+            int result = keys[first].compareToIgnoreCase(keys[second]);
+            return result != 0 ? result : Integer.compare(first, second);
+        });
+    }
+
+    private static SortedOrder sorted(int size, PositionComparator comparator) {
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        mergeSort(positions, new int[size], 0, size, comparator);
+        return new SortedOrder(positions);
+    }
+
+    private static void mergeSort(int[] values, int[] buffer, int from, int to, PositionComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(values, buffer, from, middle, comparator);
+        mergeSort(values, buffer, middle, to, comparator);
+        if (comparator.compare(values[middle - 1], values[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(values, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                values[i] = buffer[left++];
+            } else {
+                values[i] = buffer[right++];
+            }
+        }
+    }
+
+    @Override
+    public int positionAt(int step) {
+        return step >= 0 && step < positions.length ? positions[step] : -1;
+    }
+
+    @Override
+    public int stepOf(int position) {
+        return position >= 0 && position < steps.length ? steps[position] : -1;
+    }
+}
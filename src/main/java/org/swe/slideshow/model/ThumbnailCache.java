@@ -0,0 +1,383 @@
+package org.swe.slideshow.model;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class ThumbnailCache {
+    public static final int THUMBNAIL_SIZE = 160;
+
+    private static final long DISK_LIMIT = 512L << 20;
+    private static final long MAX_AGE_MS = 30L * 24 * 60 * 60 * 1000;
+    private static final long TOUCH_INTERVAL_MS = 24L * 60 * 60 * 1000;
+    private static final long FOREGROUND_WAIT_MS = 20;
+    private static final Color BACKGROUND = new Color(0x30, 0x30, 0x30);
+    private static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".slideshow-catalog", "thumbnails");
+    private static final int WORKER_COUNT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final AtomicInteger FOREGROUND_DECODES = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(WORKER_COUNT, runnable -> {
+        Thread thread = new Thread(runnable, "thumbnail-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static final class Holder {
+        private static final ThumbnailCache SHARED = new ThumbnailCache(DEFAULT_DIRECTORY);
+    }
+
+    private final Path directory;
+    private final Map<String, Image> resident = new HashMap<>();
+    private final Map<String, Integer> pins = new HashMap<>();
+    private final AtomicInteger prefillGeneration = new AtomicInteger();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    public ThumbnailCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static ThumbnailCache shared() {
+        return Holder.SHARED;
+    }
+
+    static void beginForegroundDecode() {
+        FOREGROUND_DECODES.incrementAndGet();
+    }
+
+    static void endForegroundDecode() {
+        FOREGROUND_DECODES.decrementAndGet();
+    }
+
+    public synchronized Image getResident(String imagePath) {
+        return imagePath != null ? resident.get(imagePath) : null;
+    }
+
+    public synchronized void evict(String imagePath) {
+        if (imagePath != null) {
+            resident.remove(imagePath);
+        }
+    }
+
+    public Future<?> request(String imagePath, Consumer<Image> onReady) {
+        Image cached = pin(imagePath);
+        if (cached != null) {
+            onReady.accept(cached);
+            return null;
+        }
+        return EXECUTOR.submit(() -> {
+            Image image = load(imagePath);
+            if (image == null) {
+                return;
+            }
+            keepResident(imagePath, image);
+            Platform.runLater(() -> onReady.accept(image));
+        });
+    }
+
+    public synchronized void release(String imagePath) {
+        Integer count = pins.get(imagePath);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            pins.put(imagePath, count - 1);
+        } else {
+            pins.remove(imagePath);
+            resident.remove(imagePath);
+        }
+    }
+
+    private synchronized Image pin(String imagePath) {
+        pins.merge(imagePath, 1, Integer::sum);
+        return resident.get(imagePath);
+    }
+
+    public void prefill(List<String> imagePaths) {
+        int generation = prefillGeneration.incrementAndGet();
+        Thread thread = new Thread(() -> runPrefill(imagePaths, generation), "thumbnail-prefill");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void cancelPrefill() {
+        prefillGeneration.incrementAndGet();
+    }
+
+    private void runPrefill(List<String> imagePaths, int generation) {
+        List<Future<?>> window = new ArrayList<>(WORKER_COUNT);
+        for (int start = 0; start < imagePaths.size() && prefillGeneration.get() == generation; start += WORKER_COUNT) {
+            int end = Math.min(imagePaths.size(), start + WORKER_COUNT);
+            for (int i = start; i < end; i++) {
+                String imagePath = imagePaths.get(i);
+                window.add(EXECUTOR.submit(() -> {
+                    if (prefillGeneration.get() == generation) {
+                        ensureStored(imagePath);
+                    }
+                }));
+            }
+            for (Future<?> future : window) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+            window.clear();
+        }
+        prune();
+    }
+
+    private void prune() {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Path> files = new ArrayList<>();
+            List<BasicFileAttributes> attributes = new ArrayList<>();
+            try (DirectoryStream<Path> buckets = Files.newDirectoryStream(directory)) {
+                for (Path bucket : buckets) {
+                    if (!Files.isDirectory(bucket)) {
+                        continue;
+                    }
+                    try (DirectoryStream<Path> stored = Files.newDirectoryStream(bucket)) {
+                        for (Path file : stored) {
+                            files.add(file);
+                            attributes.add(Files.readAttributes(file, BasicFileAttributes.class));
+                        }
+                    }
+                }
+            }
+            Integer[] byAge = new Integer[files.size()];
+            long total = 0;
+            for (int i = 0; i < byAge.length; i++) {
+                byAge[i] = i;
+                total += attributes.get(i).size();
+            }
+            Arrays.sort(byAge, Comparator.comparingLong(i -> attributes.get(i).lastModifiedTime().toMillis()));
+            long oldest = System.currentTimeMillis() - MAX_AGE_MS;
+            for (int i : byAge) {
+                BasicFileAttributes file = attributes.get(i);
+                if (total <= DISK_LIMIT && file.lastModifiedTime().toMillis() >= oldest) {
+                    break;
+                }
+                if (Files.deleteIfExists(files.get(i))) {
+                    total -= file.size();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    private void ensureStored(String imagePath) {
+        Path source = Paths.get(imagePath);
+        Path stored;
+        try {
+            stored = storedFileFor(source);
+        } catch (IOException e) {
+            return;
+        }
+        if (Files.exists(stored)) {
+            return;
+        }
+        awaitForegroundIdle();
+        byte[] encoded = generate(source);
+        if (encoded != null) {
+            store(stored, encoded);
+        }
+    }
+
+    Image loadStored(String imagePath) {
+        Image cached = getResident(imagePath);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return readStored(storedFileFor(Paths.get(imagePath)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Image readStored(Path stored) {
+        if (!Files.exists(stored)) {
+            return null;
+        }
+        try (InputStream stream = Files.newInputStream(stored)) {
+            Image image = new Image(stream);
+            if (image.isError()) {
+                return null;
+            }
+            touch(stored);
+            return image;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    Image load(String imagePath) {
+        Path source = Paths.get(imagePath);
+        Path stored;
+        try {
+            stored = storedFileFor(source);
+        } catch (IOException e) {
+            return decodeDirectly(source);
+        }
+        Image existing = readStored(stored);
+        if (existing != null) {
+            return existing;
+        }
+
+        awaitForegroundIdle();
+        if (Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        byte[] encoded = generate(source);
+        if (encoded == null) {
+            return decodeDirectly(source);
+        }
+        store(stored, encoded);
+        return new Image(new ByteArrayInputStream(encoded));
+    }
+
+    private Path storedFileFor(Path source) throws IOException {
+        ImageBytes.Attributes attributes = ImageBytes.readAttributes(source);
+        String key = source.toAbsolutePath() + "\n" + attributes.size() + "\n" + attributes.lastModified()
+                + "\n" + THUMBNAIL_SIZE;
+        String name = ScanCatalog.digest(key);
+        return directory.resolve(name.substring(0, 2)).resolve(name + ".jpg");
+    }
+
+    private static byte[] generate(Path source) {
+        BufferedImage original;
+        try (ImageInputStream input = ImageBytes.openImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestSide / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                original = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+
+        double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(original.getWidth(), original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumbnail.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (!ImageIO.write(thumbnail, "jpg", out)) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    private static Image decodeDirectly(Path source) {
+        try (InputStream stream = ImageBytes.openStream(source)) {
+            Image image = new Image(stream, THUMBNAIL_SIZE, THUMBNAIL_SIZE, true, true);
+            return image.isError() ? null : image;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void touch(Path stored) throws IOException {
+        long now = System.currentTimeMillis();
+        if (now - Files.getLastModifiedTime(stored).toMillis() > TOUCH_INTERVAL_MS) {
+            Files.setLastModifiedTime(stored, FileTime.fromMillis(now));
+        }
+    }
+
+    private static void store(Path stored, byte[] encoded) {
+        try {
+            Files.createDirectories(stored.getParent());
+            Path tempFile = stored.resolveSibling(stored.getFileName() + "." + Thread.currentThread().threadId() + ".tmp");
+            Files.write(tempFile, encoded);
+            Files.move(tempFile, stored, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void awaitForegroundIdle() {
+        try {
+            while (FOREGROUND_DECODES.get() > 0) {
+                Thread.sleep(FOREGROUND_WAIT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void keepResident(String imagePath, Image image) {
+        if (pins.containsKey(imagePath)) {
+            resident.put(imagePath, image);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.swe.slideshow.model.embedded;
 
 import org.swe.slideshow.Application;
 import org.swe.slideshow.model.AlbumItem;
+import org.swe.slideshow.model.ImageFormatSniffer;
+import org.swe.slideshow.model.ParallelTreeWalker;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -18,6 +20,7 @@ import java.util.stream.Stream;
 public class EmbeddedImageManager {
     private static final String BASE_RESOURCE_FOLDER = "/images";
     private Path basePath;
+    private boolean contentDetection;
 
     public EmbeddedImageManager() {
         resolveBasePath();
@@ -47,13 +50,24 @@ public class EmbeddedImageManager {
             return new AlbumItem[0];
         }
 
-        List<AlbumItem> items = new ArrayList<>();
-        try (Stream<Path> paths = Files.walk(album.path())) {
-            paths.filter(Files::isRegularFile)
-                    .filter(this::isSupportedImage)
-                    .forEach(path -> items.add(new AlbumItem(path.toAbsolutePath().toString())));
+        List<Path> paths;
+        if (contentDetection) {
+            ImageFormatSniffer sniffer = ImageFormatSniffer.shared();
+            paths = new ParallelTreeWalker().walk(album.path(), sniffer::isImage);
+            sniffer.prune(album.path());
+            sniffer.save();
+        } else {
+            paths = new ParallelTreeWalker().walk(album.path(), this::isSupportedImage);
         }
-        return items.toArray(new AlbumItem[0]);
+        AlbumItem[] items = new AlbumItem[paths.size()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new AlbumItem(paths.get(i).toAbsolutePath().toString());
+        }
+        return items;
+    }
+
+    public void setContentDetection(boolean contentDetection) {
+        this.contentDetection = contentDetection;
     }
 
     private boolean isSupportedImage(Path path) {
@@ -6,15 +6,23 @@ import org.swe.slideshow.model.SlideNavigator;
 public class DirectoryAggregateFactory implements AggregateComponentsFactory {
     private final String directory;
     private final String format;
+    private final boolean contentDetection;
 
     public DirectoryAggregateFactory(String directory, String format) {
+        this(directory, format, false);
+    }
+
+    public DirectoryAggregateFactory(String directory, String format, boolean contentDetection) {
         this.directory = directory;
         this.format = format;
+        this.contentDetection = contentDetection;
     }
 
     @Override
     public ConcreteAggregate createAggregate() {
-        return new ConcreteAggregate(directory, format);
+        ConcreteAggregate aggregate = new ConcreteAggregate(directory, format, false);
+        aggregate.setContentDetection(contentDetection);
+        return aggregate;
     }
 
     @Override
@@ -0,0 +1,40 @@
+package org.swe.slideshow.model.factory;
+
+import org.swe.slideshow.model.AlbumItem;
+import org.swe.slideshow.model.AlbumPack;
+import org.swe.slideshow.model.ConcreteAggregate;
+import org.swe.slideshow.model.SlideNavigator;
+import org.swe.slideshow.model.ThumbnailCache;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class PackAggregateFactory implements AggregateComponentsFactory {
+    private final Path packFile;
+
+    public PackAggregateFactory(Path packFile) {
+        this.packFile = packFile;
+    }
+
+    @Override
+    public ConcreteAggregate createAggregate() throws IOException {
+        ConcreteAggregate aggregate = new ConcreteAggregate("", "*");
+        AlbumPack pack = AlbumPack.open(packFile);
+        for (AlbumItem item : pack.items()) {
+            aggregate.getImageCache().remove(item.getImagePath());
+            ThumbnailCache.shared().evict(item.getImagePath());
+        }
+        aggregate.loadFromPack(pack);
+        return aggregate;
+    }
+
+    @Override
+    public SlideNavigator createNavigator(ConcreteAggregate aggregate) {
+        return new SlideNavigator(aggregate);
+    }
+
+    @Override
+    public String description() {
+        return "Архив альбома: " + packFile.getFileName();
+    }
+}
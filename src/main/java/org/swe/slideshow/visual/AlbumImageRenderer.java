@@ -1,12 +1,17 @@
 package org.swe.slideshow.visual;
 
 import org.swe.slideshow.model.AlbumItem;
+import org.swe.slideshow.model.ImageBytes;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Iterator;
 
 public final class AlbumImageRenderer {
     private static final int BORDER = 28;
@@ -20,8 +25,42 @@ public final class AlbumImageRenderer {
     public static void renderWithEmotion(Path sourceImage,
                                          Path destinationImage,
                                          AlbumItem item) throws IOException {
-        BufferedImage original = ImageIO.read(sourceImage.toFile());
+        ImageIO.write(compose(sourceImage, item), "png", destinationImage.toFile());
+    }
+
+    public static byte[] renderToPng(Path sourceImage, AlbumItem item) throws IOException {
+        BufferedImage canvas = compose(sourceImage, item);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(canvas.getWidth() * canvas.getHeight());
+        ImageIO.write(canvas, "png", out);
+        return out.toByteArray();
+    }
+
+    public static long estimateMemory(Path sourceImage) {
+        try (ImageInputStream input = ImageBytes.openImageInputStream(sourceImage)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return -1;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                long canvas = (width + BORDER * 2) * (height + BORDER * 2 + FOOTER_HEIGHT) * 4;
+                return width * height * 4 + canvas + canvas / 2;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static BufferedImage compose(Path sourceImage, AlbumItem item) throws IOException {
+        ImageInputStream input = ImageBytes.openImageInputStream(sourceImage);
+        BufferedImage original = ImageIO.read(input);
         if (original == null) {
+            input.close();
             throw new IOException("Unsupported image format: " + sourceImage);
         }
 
@@ -47,8 +86,7 @@ public final class AlbumImageRenderer {
         } finally {
             g.dispose();
         }
-
-        ImageIO.write(canvas, "png", destinationImage.toFile());
+        return canvas;
     }
 
     private static void drawCaption(Graphics2D g, String caption, int width, int height) {
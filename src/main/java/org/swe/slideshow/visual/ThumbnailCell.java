@@ -0,0 +1,54 @@
+package org.swe.slideshow.visual;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.ImageView;
+import org.swe.slideshow.model.AlbumItem;
+import org.swe.slideshow.model.ThumbnailCache;
+
+import java.util.Objects;
+import java.util.concurrent.Future;
+
+public class ThumbnailCell extends ListCell<AlbumItem> {
+    private final ThumbnailCache cache;
+    private final ImageView imageView = new ImageView();
+    private Future<?> pending;
+    private String requestedPath;
+
+    public ThumbnailCell(ThumbnailCache cache) {
+        this.cache = cache;
+        imageView.setFitWidth(ThumbnailCache.THUMBNAIL_SIZE);
+        imageView.setFitHeight(ThumbnailCache.THUMBNAIL_SIZE);
+        imageView.setPreserveRatio(true);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(AlbumItem item, boolean empty) {
+        super.updateItem(item, empty);
+        String imagePath = empty || item == null ? null : item.getImagePath();
+        if (Objects.equals(imagePath, requestedPath)) {
+            return;
+        }
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        if (requestedPath != null) {
+            cache.release(requestedPath);
+        }
+        requestedPath = imagePath;
+        imageView.setImage(null);
+        if (imagePath == null) {
+            setGraphic(null);
+            return;
+        }
+        setGraphic(imageView);
+        pending = cache.request(imagePath, image -> {
+            if (imagePath.equals(requestedPath)) {
+                imageView.setImage(image);
+                pending = null;
+            }
+        });
+    }
+}
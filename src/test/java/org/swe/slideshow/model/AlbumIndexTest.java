@@ -0,0 +1,99 @@
+package org.swe.slideshow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class AlbumIndexTest {
+    private static final int SMALL_ALBUM = 2_000;
+    private static final int LARGE_ALBUM = 100_000;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path album;
+
+    @Test
+    void readsItemsFromTheIndexOnDemand() throws IOException {
+        writeAlbum(SMALL_ALBUM);
+        IndexedAlbum indexed = AlbumStore.openIndexed(album);
+        assertNotNull(indexed);
+
+        SlideCollection slides = new SlideCollection();
+        slides.load(indexed);
+
+        AlbumItem[] expected = AlbumStore.loadAlbum(album);
+        assertEquals(expected.length, slides.size());
+        for (int i = 0; i < expected.length; i++) {
+            AlbumItem item = slides.getItem(i);
+            assertEquals(expected[i].getImagePath(), item.getImagePath());
+            assertEquals(expected[i].getImpressionText(), item.getImpressionText());
+            assertEquals(expected[i].getEmotion(), item.getEmotion());
+        }
+        assertEquals(1234, slides.indexOfPath(expected[1234].getImagePath()));
+    }
+
+    @Test
+    void editsAndAppendsOnTopOfTheIndex() throws IOException {
+        writeAlbum(SMALL_ALBUM);
+        SlideCollection slides = new SlideCollection();
+        slides.load(AlbumStore.openIndexed(album));
+
+        slides.getItem(10).setImpressionText("Закат над морем");
+        assertEquals("Закат над морем", slides.getItem(10).getImpressionText());
+        assertEquals(1, slides.impressionMatches("", "закат").size());
+        slides.getItem(14).setEmotion("Грусть");
+        assertEquals(2, slides.impressionMatches("Грусть", "").size());
+
+        slides.add(new AlbumItem("/elsewhere/extra.png", "Закат", ""));
+        assertEquals(SMALL_ALBUM, slides.indexOfPath("/elsewhere/extra.png"));
+        assertEquals(2, slides.impressionMatches("", "закат").size());
+
+        String removedPath = slides.getItem(7).getImagePath();
+        assertEquals(1, slides.removeIf(item -> item.getImagePath().equals(removedPath)));
+        assertEquals(-1, slides.indexOfPath(removedPath));
+        assertEquals(7, slides.indexOfPath(slides.getItem(7).getImagePath()));
+        assertEquals(SMALL_ALBUM - 1, slides.indexOfPath("/elsewhere/extra.png"));
+    }
+
+    @Test
+    void benchmarkOpeningLargeAlbum() throws IOException {
+        writeAlbum(LARGE_ALBUM);
+        AlbumStore.loadAlbum(album);
+
+        long materialized = Long.MAX_VALUE;
+        long indexed = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            ConcreteAggregate eager = new ConcreteAggregate("", "*", false);
+            eager.loadFromAlbumItems(AlbumStore.loadAlbum(album));
+            materialized = Math.min(materialized, System.nanoTime() - started);
+            assertEquals(LARGE_ALBUM, eager.getImageCount());
+
+            started = System.nanoTime();
+            ConcreteAggregate lazy = new ConcreteAggregate("", "*", false);
+            lazy.loadFromAlbum(album);
+            indexed = Math.min(indexed, System.nanoTime() - started);
+            assertEquals(LARGE_ALBUM, lazy.getImageCount());
+        }
+        System.out.printf("album open: %d items, materialized %.1f ms, indexed %.1f ms (best of %d)%n",
+                LARGE_ALBUM, materialized / 1e6, indexed / 1e6, ROUNDS);
+    }
+
+    private void writeAlbum(int count) throws IOException {
+        Path images = Files.createDirectories(album.resolve("images"));
+        AlbumItem[] items = new AlbumItem[count];
+        Path[] destinations = new Path[count];
+        for (int i = 0; i < count; i++) {
+            destinations[i] = Files.createFile(images.resolve("img" + i + ".png"));
+            items[i] = new AlbumItem("/source/" + i + ".jpg", i % 7 == 0 ? "Впечатление " + i : "",
+                    i % 3 == 0 ? "Радость" : i == 13 ? "Грусть" : "");
+        }
+        AlbumStore.writeAlbumJson(album, items, destinations);
+    }
+}
@@ -0,0 +1,94 @@
+package org.swe.slideshow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AlbumJsonTest {
+    private static final int LARGE_ALBUM = 200_000;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path album;
+
+    @Test
+    void roundTripsEscapedValues() throws IOException {
+        Files.createDirectories(album.resolve("images"));
+        String[] texts = {"Просто текст", "Кавычки \" и \\ слэш", "Строка\nперенос\tтаб", "\u0001 управляющий", ""};
+        AlbumItem[] items = new AlbumItem[texts.length];
+        Path[] destinations = new Path[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            destinations[i] = Files.createFile(album.resolve("images").resolve("img" + i + ".png"));
+            items[i] = new AlbumItem("/source/" + i + ".jpg", texts[i], i % 2 == 0 ? "Радость" : "");
+        }
+
+        AlbumStore.writeAlbumJson(album, items, destinations);
+        AlbumItem[] loaded = AlbumStore.loadAlbum(album);
+
+        assertEquals(texts.length, loaded.length);
+        for (int i = 0; i < texts.length; i++) {
+            assertEquals(destinations[i].toAbsolutePath().toString(), loaded[i].getImagePath());
+            assertEquals(texts[i], loaded[i].getImpressionText());
+            assertEquals(items[i].getEmotion(), loaded[i].getEmotion());
+        }
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousAlbum() throws IOException {
+        AlbumItem[] items = {new AlbumItem("/source/a.jpg", "Первый", ""), new AlbumItem("/source/b.jpg", "Второй", "")};
+        Path[] destinations = {album.resolve("a.png"), album.resolve("b.png")};
+        AlbumStore.writeAlbumJson(album, items, destinations);
+        String previous = Files.readString(album.resolve("album.json"));
+
+        AlbumItem[] broken = {items[0], null};
+        assertThrows(NullPointerException.class, () -> AlbumStore.writeAlbumJson(album, broken, destinations));
+
+        assertEquals(previous, Files.readString(album.resolve("album.json")));
+        assertFalse(Files.exists(album.resolve("album.json.tmp")));
+    }
+
+    @Test
+    void benchmarkLargeAlbum() throws IOException {
+        AlbumItem[] items = new AlbumItem[LARGE_ALBUM];
+        Path[] destinations = new Path[LARGE_ALBUM];
+        for (int i = 0; i < LARGE_ALBUM; i++) {
+            items[i] = new AlbumItem("/source/" + i + ".jpg", i % 7 == 0 ? "Впечатление \"" + i + "\"" : "",
+                    i % 3 == 0 ? "Радость" : "");
+            destinations[i] = album.resolve("img" + i + ".png");
+        }
+
+        long write = Long.MAX_VALUE;
+        long parse = Long.MAX_VALUE;
+        int parsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            AlbumStore.writeAlbumJson(album, items, destinations);
+            write = Math.min(write, System.nanoTime() - started);
+
+            List<AlbumJsonReader.Entry> entries = new ArrayList<>(LARGE_ALBUM);
+            started = System.nanoTime();
+            try (AlbumJsonReader reader = new AlbumJsonReader(
+                    FileChannel.open(album.resolve("album.json"), StandardOpenOption.READ))) {
+                reader.readItems(entries::add);
+            }
+            parse = Math.min(parse, System.nanoTime() - started);
+            parsed = entries.size();
+            assertEquals("Впечатление \"7\"", entries.get(7).text());
+        }
+
+        assertEquals(LARGE_ALBUM, parsed);
+        System.out.printf("album.json: %d items, %.1f MB, write %.1f ms, parse %.1f ms (best of %d)%n",
+                LARGE_ALBUM, Files.size(album.resolve("album.json")) / 1e6, write / 1e6, parse / 1e6, ROUNDS);
+    }
+}
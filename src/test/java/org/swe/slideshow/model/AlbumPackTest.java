@@ -0,0 +1,57 @@
+package org.swe.slideshow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AlbumPackTest {
+    @TempDir
+    Path root;
+
+    @Test
+    void rewritingAnOpenPackKeepsItReadable() throws IOException {
+        Path album = root.resolve("album");
+        Path packFile = root.resolve("album" + AlbumPack.EXTENSION);
+        Path image = writeAlbum(album, "first");
+        AlbumStore.packAlbum(album, packFile);
+
+        ConcreteAggregate shown = new ConcreteAggregate("", "*", false);
+        shown.loadFromPack(AlbumPack.open(packFile));
+        String packedPath = shown.getAllItems()[0].getImagePath();
+        assertEquals("first", read(packedPath));
+
+        Files.writeString(image, "second");
+        AlbumStore.packAlbum(album, packFile);
+
+        assertEquals("first", read(packedPath));
+
+        ConcreteAggregate reloaded = new ConcreteAggregate("", "*", false);
+        reloaded.loadFromPack(AlbumPack.open(packFile));
+        shown.releasePack();
+        assertEquals("second", read(reloaded.getAllItems()[0].getImagePath()));
+        assertEquals(packFile.toAbsolutePath().normalize(), reloaded.getPackFile());
+        reloaded.releasePack();
+    }
+
+    private static Path writeAlbum(Path album, String content) throws IOException {
+        Path image = Files.createDirectories(album.resolve("images")).resolve("photo.png");
+        Files.writeString(image, content);
+        AlbumStore.writeAlbumJson(album, new AlbumItem[]{new AlbumItem("/source/photo.jpg", "Море", "Радость")},
+                new Path[]{image});
+        return image;
+    }
+
+    private static String read(String imagePath) throws IOException {
+        try (InputStream stream = ImageBytes.openStream(Paths.get(imagePath))) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
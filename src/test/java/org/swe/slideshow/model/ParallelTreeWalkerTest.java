@@ -0,0 +1,100 @@
+package org.swe.slideshow.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelTreeWalkerTest {
+    private static final Predicate<Path> IMAGES =
+            path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jpg");
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void findsTheSameFilesAsFilesWalk() throws IOException {
+        createTree(root, 3, 6, 12);
+
+        List<Path> walked = new ParallelTreeWalker().walk(root, IMAGES);
+
+        assertEquals(sequentialWalk(root), walked.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void returnsTheSameOrderOnEveryWalk() throws IOException {
+        createTree(root, 3, 5, 8);
+        ParallelTreeWalker walker = new ParallelTreeWalker();
+
+        List<Path> first = walker.walk(root, IMAGES);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            assertEquals(first, walker.walk(root, IMAGES));
+        }
+    }
+
+    @Test
+    void doesNotFollowDirectoryLinksIntoCycles() throws IOException {
+        createTree(root, 2, 3, 4);
+        try {
+            Files.createSymbolicLink(root.resolve("d0").resolve("loop"), root);
+        } catch (UnsupportedOperationException | IOException e) {
+            return;
+        }
+
+        List<Path> walked = new ParallelTreeWalker().walk(root, IMAGES);
+
+        assertEquals(sequentialWalk(root), walked.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void benchmarkAgainstFilesWalk() throws IOException {
+        int files = createTree(root, 3, 10, 20);
+        ParallelTreeWalker walker = new ParallelTreeWalker();
+        List<Path> expected = sequentialWalk(root);
+        assertEquals(expected, walker.walk(root, IMAGES).stream().sorted().collect(Collectors.toList()));
+
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            sequentialWalk(root);
+            sequential = Math.min(sequential, System.nanoTime() - started);
+            started = System.nanoTime();
+            walker.walk(root, IMAGES);
+            parallel = Math.min(parallel, System.nanoTime() - started);
+        }
+        System.out.printf("ParallelTreeWalker: %d files, %d images, Files.walk %.1f ms, parallel %.1f ms (best of %d)%n",
+                files, expected.size(), sequential / 1e6, parallel / 1e6, ROUNDS);
+    }
+
+    private static List<Path> sequentialWalk(Path root) throws IOException {
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream.filter(Files::isRegularFile).filter(IMAGES).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static int createTree(Path directory, int depth, int fanOut, int filesPerDirectory) throws IOException {
+        int created = 0;
+        for (int i = 0; i < filesPerDirectory; i++) {
+            Files.createFile(directory.resolve("f" + i + (i % 4 == 0 ? ".txt" : ".jpg")));
+            created++;
+        }
+        if (depth > 0) {
+            for (int i = 0; i < fanOut; i++) {
+                created += createTree(Files.createDirectory(directory.resolve("d" + i)), depth - 1, fanOut, filesPerDirectory);
+            }
+        }
+        return created;
+    }
+}